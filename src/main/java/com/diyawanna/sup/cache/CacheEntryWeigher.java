@@ -0,0 +1,34 @@
+package com.diyawanna.sup.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Approximates the heap footprint of a cache entry in bytes
+ * 
+ * The weight is the length of the value's JSON form, which tracks the size
+ * of the cached entities closely enough to bound a cache by memory rather
+ * than entry count. It is computed once, when the entry is written.
+ * 
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    private static final int FALLBACK_WEIGHT = 1024;
+
+    private final ObjectMapper objectMapper;
+
+    public CacheEntryWeigher(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        try {
+            return Math.max(1, objectMapper.writeValueAsBytes(value).length);
+        } catch (Exception e) {
+            return FALLBACK_WEIGHT;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.diyawanna.sup.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.CursorType;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.types.ObjectId;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node cache invalidation
+ *
+ * Every instance keeps its own in-memory caches, so a write on one node must
+ * evict the matching entries on all others. This bus listens for writes to
+ * the cached collections and evicts locally:
+ * - change-stream mode (default) tails a MongoDB change stream on the
+ *   database, filtered to the cached collections, and resumes from the last
+ *   seen token after errors
+ * - capped-collection mode, used when change streams are unavailable
+ *   (standalone servers), has each node publish its writes to the capped
+ *   cache_invalidation collection and tail it with an awaiting cursor
+ *
+ * In change-stream mode a node also receives its own writes. Local writes
+ * are recorded with the entity version they wrote for
+ * cache.invalidation.local-write-window-ms, and events carrying a recorded
+ * version are skipped, since the write was already applied locally. Events
+ * are applied in batches of what the cursor has buffered, with the dynamic
+ * query results of each collection evicted once per batch. Inserts,
+ * replacements and updates carry the values they wrote, so only the
+ * recorded misses of those values' keys are forgotten. When the resume
+ * token has fallen off the oplog, the stream restarts from the present and
+ * the entity caches are cleared, since the missed changes are unknown.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class CacheInvalidationBus {
+
+    public static final String INVALIDATION_COLLECTION = "cache_invalidation";
+
+    // Server error code for "$changeStream is only supported on replica sets"
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+    // Server error codes for a resume token no longer covered by the oplog
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final int MAX_EVENT_BATCH = 1000;
+    private static final String VERSION_FIELD = "version";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private DynamicQueryResultCache resultCache;
+
+    @Value("${cache.invalidation.mode:change-stream}")
+    private String mode;
+
+    @Value("${cache.invalidation.capped-size-bytes:1048576}")
+    private long cappedSizeBytes;
+
+    @Value("${cache.invalidation.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${cache.invalidation.local-write-window-ms:30000}")
+    private long localWriteWindowMs;
+
+    @Value("${cache.invalidation.local-write-max-entries:100000}")
+    private long localWriteMaxEntries;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile boolean running;
+    private volatile boolean cappedMode;
+    private Thread listener;
+    // Version each recently written document was given by this node, keyed by collection and id
+    private volatile Cache<String, Long> localWrites;
+
+    /**
+     * Start listening once the application is fully started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if ("none".equalsIgnoreCase(mode)) {
+            System.out.println("Cache invalidation bus disabled");
+            return;
+        }
+        cappedMode = "capped-collection".equalsIgnoreCase(mode);
+        localWrites = Caffeine.newBuilder()
+            .expireAfterWrite(localWriteWindowMs, TimeUnit.MILLISECONDS)
+            .maximumSize(localWriteMaxEntries)
+            .build();
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Announce a local write to the other nodes
+     *
+     * In change-stream mode the write is only recorded, so that this node
+     * skips its own change event.
+     *
+     * @param id      document id, or null when the write affected an unknown set of documents
+     * @param version entity version the write stored, or null when unknown (e.g. deletes)
+     */
+    public void publish(String collection, String id, Object version) {
+        if (!running || !cacheMaintenance.trackedCollections().contains(collection)) {
+            return;
+        }
+        if (!cappedMode) {
+            if (id != null && version instanceof Number) {
+                localWrites.put(localWriteKey(collection, id), ((Number) version).longValue());
+            }
+            return;
+        }
+        try {
+            Document message = new Document("collection", collection)
+                .append("documentId", id)
+                .append("origin", nodeId)
+                .append("timestamp", new Date());
+            mongoTemplate.getCollection(INVALIDATION_COLLECTION).insertOne(message);
+        } catch (Exception e) {
+            System.err.println("Failed to publish cache invalidation for " + collection + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Announce documents inserted locally in bulk, all with the given version
+     *
+     * Other nodes get one capped-collection message for the whole batch,
+     * which clears their cache of the collection.
+     */
+    public void publishInserts(String collection, Collection<String> ids, long version) {
+        if (!running || ids.isEmpty() || !cacheMaintenance.trackedCollections().contains(collection)) {
+            return;
+        }
+        if (cappedMode) {
+            publish(collection, null, null);
+            return;
+        }
+        for (String id : ids) {
+            localWrites.put(localWriteKey(collection, id), version);
+        }
+    }
+
+    private void listen() {
+        ChangeStreamPosition position = new ChangeStreamPosition();
+        ObjectId lastMessageId = null;
+
+        while (running) {
+            try {
+                if (cappedMode) {
+                    lastMessageId = tailInvalidationCollection(lastMessageId);
+                } else {
+                    watchChangeStream(position);
+                }
+            } catch (MongoCommandException e) {
+                if (!cappedMode && e.getErrorCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    System.out.println("Change streams unavailable, falling back to capped collection invalidation");
+                    cappedMode = true;
+                    continue;
+                }
+                if (!cappedMode && position.resumeToken != null && (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST
+                        || e.getErrorCode() == CHANGE_STREAM_FATAL_ERROR)) {
+                    System.err.println("Change stream history lost, restarting from now and clearing caches: "
+                        + e.getMessage());
+                    position.resumeToken = null;
+                    position.historyLost = true;
+                    continue;
+                }
+                pauseAfterError(e);
+            } catch (Exception e) {
+                pauseAfterError(e);
+            }
+        }
+    }
+
+    /**
+     * Follow the database change stream until stopped or failed, keeping the position of the last applied event
+     */
+    private void watchChangeStream(ChangeStreamPosition position) {
+        List<String> collections = new ArrayList<>(cacheMaintenance.trackedCollections());
+        var changeStream = mongoTemplate.getDb()
+            .watch(List.of(Aggregates.match(Filters.in("ns.coll", collections))))
+            .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (position.resumeToken != null) {
+            changeStream = changeStream.resumeAfter(position.resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream.cursor()) {
+            if (position.historyLost) {
+                // Cleared only once the new stream is open, so no change slips in between
+                for (String collection : collections) {
+                    evict(collection, null);
+                }
+                position.historyLost = false;
+            }
+            List<ChangeStreamDocument<Document>> batch = new ArrayList<>();
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                while (event != null) {
+                    batch.add(event);
+                    event = batch.size() < MAX_EVENT_BATCH && cursor.available() > 0 ? cursor.tryNext() : null;
+                }
+                applyChanges(batch);
+                batch.clear();
+                if (cursor.getResumeToken() != null) {
+                    position.resumeToken = cursor.getResumeToken();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict the documents changed by a batch of change events, evicting each collection's query results once
+     */
+    private void applyChanges(List<ChangeStreamDocument<Document>> events) {
+        Set<String> changedCollections = new LinkedHashSet<>();
+        for (ChangeStreamDocument<Document> event : events) {
+            if (event.getNamespace() == null) {
+                continue;
+            }
+            String collection = event.getNamespace().getCollectionName();
+            BsonDocument documentKey = event.getDocumentKey();
+            String id = documentKey != null ? idOf(documentKey.get("_id")) : null;
+            Document changedValues = changedValues(event);
+            if (id != null && isLocalWrite(collection, id, changedValues)) {
+                continue;
+            }
+            changedCollections.add(collection);
+            evictChange(event.getOperationType(), collection, id, changedValues);
+        }
+        for (String collection : changedCollections) {
+            resultCache.evictCollection(collection);
+        }
+    }
+
+    private void evictChange(OperationType operation, String collection, String id, Document changedValues) {
+        Class<?> type = cacheMaintenance.collectionType(collection);
+        if (id == null || type == null || (changedValues == null && operation != OperationType.DELETE)) {
+            cacheMaintenance.evictRemote(collection, id);
+            return;
+        }
+        Object values;
+        try {
+            values = changedValues != null ? mongoTemplate.getConverter().read(type, changedValues) : null;
+        } catch (RuntimeException e) {
+            // Values that do not map onto the entity (e.g. written by another application)
+            cacheMaintenance.evictRemote(collection, id);
+            return;
+        }
+        cacheMaintenance.evictRemoteChange(collection, id, values, operation == OperationType.INSERT);
+    }
+
+    /**
+     * Values written by a change: the full document of inserts and replacements, the updated fields of updates
+     */
+    private Document changedValues(ChangeStreamDocument<Document> event) {
+        OperationType operation = event.getOperationType();
+        if (operation == OperationType.INSERT || operation == OperationType.REPLACE) {
+            return event.getFullDocument();
+        }
+        UpdateDescription update = event.getUpdateDescription();
+        if (operation == OperationType.UPDATE && update != null && update.getUpdatedFields() != null) {
+            return mongoTemplate.getDb().getCodecRegistry().get(Document.class)
+                .decode(new BsonDocumentReader(update.getUpdatedFields()), DecoderContext.builder().build());
+        }
+        return null;
+    }
+
+    /**
+     * Whether the change wrote the version this node recorded for its own write of the document
+     */
+    private boolean isLocalWrite(String collection, String id, Document changedValues) {
+        Object version = changedValues != null ? changedValues.get(VERSION_FIELD) : null;
+        if (!(version instanceof Number)) {
+            return false;
+        }
+        String key = localWriteKey(collection, id);
+        Long written = localWrites.getIfPresent(key);
+        if (!Objects.equals(written, ((Number) version).longValue())) {
+            return false;
+        }
+        localWrites.invalidate(key);
+        return true;
+    }
+
+    /**
+     * Follow the capped invalidation collection until stopped or failed, returning the last message id
+     */
+    private ObjectId tailInvalidationCollection(ObjectId lastMessageId) {
+        if (!mongoTemplate.collectionExists(INVALIDATION_COLLECTION)) {
+            try {
+                mongoTemplate.createCollection(INVALIDATION_COLLECTION,
+                    CollectionOptions.empty().capped().size(cappedSizeBytes));
+                // A tailable cursor on an empty capped collection dies immediately, so seed it
+                mongoTemplate.getCollection(INVALIDATION_COLLECTION)
+                    .insertOne(new Document("origin", nodeId).append("timestamp", new Date()));
+            } catch (Exception e) {
+                // Another node created it first
+            }
+        }
+        MongoCollection<Document> collection = mongoTemplate.getCollection(INVALIDATION_COLLECTION);
+
+        if (lastMessageId == null) {
+            // Start after the newest message; older ones predate this node's caches
+            Document newest = collection.find().sort(new Document("$natural", -1)).limit(1).first();
+            lastMessageId = newest != null ? newest.getObjectId("_id") : new ObjectId(new Date(0));
+        }
+
+        try (MongoCursor<Document> cursor = collection.find(Filters.gt("_id", lastMessageId))
+                .cursorType(CursorType.TailableAwait)
+                .maxAwaitTime(1, TimeUnit.SECONDS)
+                .iterator()) {
+            while (running) {
+                Document message = cursor.tryNext();
+                if (message == null) {
+                    continue;
+                }
+                lastMessageId = message.getObjectId("_id");
+                if (!nodeId.equals(message.getString("origin"))) {
+                    evict(message.getString("collection"), message.getString("documentId"));
+                }
+            }
+        }
+        return lastMessageId;
+    }
+
+    private void evict(String collection, String id) {
+        if (collection == null) {
+            return;
+        }
+        cacheMaintenance.evictRemote(collection, id);
+        resultCache.evictCollection(collection);
+    }
+
+    private static String localWriteKey(String collection, String id) {
+        return collection + ":" + id;
+    }
+
+    private void pauseAfterError(Exception e) {
+        if (!running) {
+            return;
+        }
+        System.err.println("Cache invalidation listener error, retrying in " + retryDelayMs + " ms: " + e.getMessage());
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static String idOf(BsonValue value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isObjectId()) {
+            return value.asObjectId().getValue().toHexString();
+        }
+        if (value.isString()) {
+            return value.asString().getValue();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Where the change stream resumes after an error
+     */
+    private static final class ChangeStreamPosition {
+        private BsonDocument resumeToken;
+        // Set when the resume token was lost; caches are cleared once the new stream is open
+        private boolean historyLost;
+    }
+}
@@ -0,0 +1,68 @@
+package com.diyawanna.sup.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from entity id to the cache keys holding that entity
+ *
+ * Lets a change to one document be evicted by looking up its keys instead of
+ * scanning every cached value. Owners add a key after its value is stored
+ * and remove it before the value is dropped, so the index may briefly name a
+ * key that is no longer cached but never misses one that is.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class CacheKeyIndex {
+
+    private final Map<String, Set<Object>> keysById = new ConcurrentHashMap<>();
+    private final Map<Object, String> idsByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Record that the key now holds the entity with the given id; a null id only unlinks the key
+     */
+    public void add(Object key, String id) {
+        String previous = id != null ? idsByKey.put(key, id) : idsByKey.remove(key);
+        if (previous != null && !previous.equals(id)) {
+            unlink(previous, key);
+        }
+        if (id != null) {
+            keysById.compute(id, (k, keys) -> {
+                Set<Object> linked = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                linked.add(key);
+                return linked;
+            });
+        }
+    }
+
+    public void remove(Object key) {
+        String id = idsByKey.remove(key);
+        if (id != null) {
+            unlink(id, key);
+        }
+    }
+
+    /**
+     * Keys currently linked to the id
+     */
+    public List<Object> keysOf(String id) {
+        Set<Object> keys = keysById.get(id);
+        return keys != null ? new ArrayList<>(keys) : new ArrayList<>();
+    }
+
+    public void clear() {
+        keysById.clear();
+        idsByKey.clear();
+    }
+
+    private void unlink(String id, Object key) {
+        keysById.computeIfPresent(id, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
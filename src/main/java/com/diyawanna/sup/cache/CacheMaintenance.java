@@ -0,0 +1,360 @@
+package com.diyawanna.sup.cache;
+
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.entity.University;
+import com.diyawanna.sup.entity.User;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Targeted cache invalidation for entity writes
+ * 
+ * Knows, for every cached entity type, which cache it lives in and which keys
+ * depend on it: its id, its secondary lookup keys (e.g. 'username_' + username)
+ * and the aggregate 'all_active' list. Writes evict exactly those keys instead
+ * of clearing the whole cache, so unrelated entries stay warm.
+ * 
+ * Updates refresh every key the entity is cached under: the id entry and the
+ * current secondary keys receive the saved entity, secondary keys the entity
+ * no longer has are evicted and the active list is dropped. Writers for the
+ * same entity are serialized so the keys never disagree with each other.
+ * Creates and updates also forget recorded misses of the entity's keys in
+ * the {@link NegativeLookupCache}.
+ * 
+ * Entity caches index their keys by entity id, so a document changed on
+ * another node is evicted under every key holding it without a scan.
+ * 
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class CacheMaintenance {
+
+    public static final String ALL_ACTIVE = "all_active";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    private final Map<Class<?>, Binding<?>> bindings = new HashMap<>();
+    private final Map<String, Binding<?>> collectionBindings = new HashMap<>();
+    private final Object[] locks = new Object[64];
+
+    public CacheMaintenance() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void registerBindings() {
+        register(User.class, "user", "users", User::getId,
+            user -> keys("username_", user.getUsername()));
+        register(University.class, "university", "universities", University::getId,
+            university -> keys("name_", university.getName()));
+        register(Faculty.class, "faculty", "faculties", Faculty::getId,
+            faculty -> Collections.emptyList());
+        register(Cart.class, "cart", "carts", Cart::getId,
+            cart -> Collections.emptyList());
+        register(Query.class, "query", "queries", Query::getId,
+            query -> keys("name_", query.getName()));
+
+        for (Binding<?> binding : bindings.values()) {
+            Cache cache = cacheManager.getCache(binding.cacheName);
+            if (cache instanceof SingleFlightCaffeineCache) {
+                ((SingleFlightCaffeineCache) cache).indexEntitiesBy(binding::idOfValue);
+            }
+        }
+    }
+
+    /**
+     * Evict the keys a newly created entity can make stale: the active list and its secondary keys
+     */
+    public void afterCreate(Object entity) {
+        Binding<Object> binding = bindingFor(entity);
+        Cache cache = cache(binding);
+        List<String> secondaryKeys = binding.secondaryKeys.apply(entity);
+        evictAll(cache, secondaryKeys);
+        cache.evict(ALL_ACTIVE);
+        forgetMisses(binding, secondaryKeys, binding.id.apply(entity));
+    }
+
+    /**
+     * Capture the keys an entity is cached under before it is modified
+     */
+    public KeySnapshot snapshot(Object entity) {
+        Binding<Object> binding = bindingFor(entity);
+        return new KeySnapshot(binding.secondaryKeys.apply(entity));
+    }
+
+    /**
+     * Bring every key of an updated entity in line with its saved state
+     *
+     * @param previousKeys keys captured with {@link #snapshot(Object)} before the entity was changed
+     */
+    public void afterUpdate(KeySnapshot previousKeys, Object savedEntity) {
+        Binding<Object> binding = bindingFor(savedEntity);
+        Cache cache = cache(binding);
+        String id = binding.id.apply(savedEntity);
+        List<String> currentKeys = binding.secondaryKeys.apply(savedEntity);
+
+        synchronized (lockFor(binding.cacheName, id)) {
+            for (String key : previousKeys.secondaryKeys) {
+                if (!currentKeys.contains(key)) {
+                    cache.evict(key);
+                }
+            }
+            for (String key : currentKeys) {
+                cache.put(key, savedEntity);
+            }
+            cache.put(id, savedEntity);
+            cache.evict(ALL_ACTIVE);
+            forgetMisses(binding, currentKeys, id);
+        }
+    }
+
+    /**
+     * Refresh the keys of an entity modified in place in the database (findAndModify)
+     *
+     * Only for modifications that leave the entity's secondary keys unchanged.
+     */
+    public void afterPartialUpdate(Object savedEntity) {
+        afterUpdate(snapshot(savedEntity), savedEntity);
+    }
+
+    /**
+     * Evict every key under which a deleted entity may be cached
+     */
+    public void afterDelete(Object entity) {
+        Binding<Object> binding = bindingFor(entity);
+        Cache cache = cache(binding);
+        String id = binding.id.apply(entity);
+
+        synchronized (lockFor(binding.cacheName, id)) {
+            evictAll(cache, binding.secondaryKeys.apply(entity));
+            cache.evict(ALL_ACTIVE);
+            cache.evict(id);
+        }
+    }
+
+    /**
+     * Collections whose documents are cached by entity caches
+     */
+    public Set<String> trackedCollections() {
+        return Collections.unmodifiableSet(collectionBindings.keySet());
+    }
+
+    /**
+     * Evict a document changed by another node, of which only the collection and id are known
+     *
+     * The changed document's keys are unknown, so every key indexed under the
+     * id is evicted and none of the cache's recorded misses can be trusted. A
+     * null id (e.g. a dropped collection or a bulk delete) clears the whole cache.
+     */
+    public void evictRemote(String collection, String id) {
+        Binding<?> binding = collectionBindings.get(collection);
+        if (binding == null) {
+            return;
+        }
+        Cache cache = cache(binding);
+        negativeLookupCache.forgetAll(binding.cacheName);
+        if (id == null) {
+            cache.clear();
+            return;
+        }
+
+        synchronized (lockFor(binding.cacheName, id)) {
+            cache.evict(id);
+            cache.evict(ALL_ACTIVE);
+            evictAll(cache, keysHoldingId(cache, id));
+        }
+    }
+
+    /**
+     * Evict a document changed by another node whose new values are known from its change event
+     *
+     * Only the misses recorded for the keys carrying the new values are
+     * forgotten. A newly inserted document cannot be cached under its own
+     * id yet, so inserts skip the index lookup.
+     *
+     * @param changedValues entity holding the values the change wrote: the whole document for
+     *                      inserts and replacements, the updated fields for updates, null for deletes
+     */
+    public void evictRemoteChange(String collection, String id, Object changedValues, boolean inserted) {
+        Binding<?> binding = collectionBindings.get(collection);
+        if (binding == null) {
+            return;
+        }
+        Cache cache = cache(binding);
+        List<String> changedKeys = secondaryKeysOf(binding, changedValues);
+
+        synchronized (lockFor(binding.cacheName, id)) {
+            evictAll(cache, changedKeys);
+            cache.evict(ALL_ACTIVE);
+            if (!inserted) {
+                cache.evict(id);
+                evictAll(cache, keysHoldingId(cache, id));
+            }
+        }
+        if (changedValues != null) {
+            forgetMisses(binding, changedKeys, id);
+        }
+    }
+
+    /**
+     * Entity type stored in a tracked collection, or null for other collections
+     */
+    public Class<?> collectionType(String collection) {
+        Binding<?> binding = collectionBindings.get(collection);
+        return binding != null ? binding.type : null;
+    }
+
+    /**
+     * Entity type cached in the named cache, or null for caches without an entity binding
+     */
+    public Class<?> entityType(String cacheName) {
+        for (Binding<?> binding : bindings.values()) {
+            if (binding.cacheName.equals(cacheName)) {
+                return binding.type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Every key an entity is cached under in its current state: its id and its secondary keys
+     */
+    public List<String> keysOf(Object entity) {
+        Binding<Object> binding = bindingFor(entity);
+        List<String> keys = new ArrayList<>(binding.secondaryKeys.apply(entity));
+        keys.add(binding.id.apply(entity));
+        return keys;
+    }
+
+    /**
+     * Id of a cached entity
+     */
+    public String idOf(Object entity) {
+        return bindingFor(entity).id.apply(entity);
+    }
+
+    private static List<Object> keysHoldingId(Cache cache, String id) {
+        if (cache instanceof SingleFlightCaffeineCache) {
+            return ((SingleFlightCaffeineCache) cache).keysWithId(id);
+        }
+        return Collections.emptyList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<String> secondaryKeysOf(Binding<T> binding, Object values) {
+        if (!binding.type.isInstance(values)) {
+            return Collections.emptyList();
+        }
+        return binding.secondaryKeys.apply((T) values);
+    }
+
+    private Object lockFor(String cacheName, String id) {
+        return locks[Math.floorMod(Objects.hash(cacheName, id), locks.length)];
+    }
+
+    private <T> void register(Class<T> type, String collection, String cacheName, Function<T, String> id,
+                              Function<T, List<String>> secondaryKeys) {
+        Binding<T> binding = new Binding<>(type, cacheName, id, secondaryKeys);
+        bindings.put(type, binding);
+        collectionBindings.put(collection, binding);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Binding<Object> bindingFor(Object entity) {
+        Binding<?> binding = bindings.get(entity.getClass());
+        if (binding == null) {
+            throw new IllegalArgumentException("No cache binding for " + entity.getClass().getSimpleName());
+        }
+        return (Binding<Object>) binding;
+    }
+
+    private Cache cache(Binding<?> binding) {
+        Cache cache = cacheManager.getCache(binding.cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + binding.cacheName);
+        }
+        return cache;
+    }
+
+    private void forgetMisses(Binding<?> binding, List<String> secondaryKeys, String id) {
+        for (String key : secondaryKeys) {
+            negativeLookupCache.forget(binding.cacheName, key);
+        }
+        if (id != null) {
+            negativeLookupCache.forget(binding.cacheName, id);
+        }
+    }
+
+    private static void evictAll(Cache cache, List<?> keys) {
+        for (Object key : keys) {
+            cache.evict(key);
+        }
+    }
+
+    private static List<String> keys(String prefix, String value) {
+        List<String> keys = new ArrayList<>(1);
+        if (value != null) {
+            keys.add(prefix + value);
+        }
+        return keys;
+    }
+
+    /**
+     * Keys of an entity as they were before a modification
+     */
+    public static final class KeySnapshot {
+        private final List<String> secondaryKeys;
+
+        private KeySnapshot(List<String> secondaryKeys) {
+            this.secondaryKeys = secondaryKeys;
+        }
+    }
+
+    /**
+     * Cache placement and key derivation of one entity type
+     */
+    private static final class Binding<T> {
+        private final Class<T> type;
+        private final String cacheName;
+        private final Function<T, String> id;
+        private final Function<T, List<String>> secondaryKeys;
+
+        private Binding(Class<T> type, String cacheName, Function<T, String> id,
+                        Function<T, List<String>> secondaryKeys) {
+            this.type = type;
+            this.cacheName = cacheName;
+            this.id = id;
+            this.secondaryKeys = secondaryKeys;
+        }
+
+        /**
+         * Id of a cached value, or null when the value is not an entity of this type
+         */
+        private String idOfValue(Object value) {
+            return type.isInstance(value) ? id.apply(type.cast(value)) : null;
+        }
+    }
+}
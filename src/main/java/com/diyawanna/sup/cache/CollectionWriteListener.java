@@ -0,0 +1,79 @@
+package com.diyawanna.sup.cache;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts cached dynamic query results when their collection is written
+ * 
+ * Local writes are also announced on the {@link CacheInvalidationBus} so that
+ * other nodes can evict their copies.
+ * 
+ * Listens to the mapping events published for repository and MongoTemplate
+ * saves and deletes. Services that write through findAndModify or updates
+ * report those writes with {@link #afterDirectWrite}; writes by other
+ * applications are not seen and fall back to the entry TTL.
+ * 
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class CollectionWriteListener extends AbstractMongoEventListener<Object> {
+
+    @Autowired
+    private DynamicQueryResultCache resultCache;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        resultCache.evictCollection(event.getCollectionName());
+        Document document = event.getDocument();
+        invalidationBus.publish(event.getCollectionName(), idOf(document),
+            document != null ? document.get("version") : null);
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        resultCache.evictCollection(event.getCollectionName());
+        invalidationBus.publish(event.getCollectionName(), idOf(event.getSource()), null);
+    }
+
+    /**
+     * Handle a write that bypassed the mapping layer, e.g. findAndModify or an update
+     *
+     * @param version entity version the write stored, or null when unknown
+     */
+    public void afterDirectWrite(String collection, String id, Long version) {
+        resultCache.evictCollection(collection);
+        invalidationBus.publish(collection, id, version);
+    }
+
+    /**
+     * Handle one chunk of documents inserted in bulk through the driver, all with the given version
+     */
+    public void afterBulkInsert(String collection, List<String> ids, long version) {
+        resultCache.evictCollection(collection);
+        invalidationBus.publishInserts(collection, ids, version);
+    }
+
+    /**
+     * Id of the saved document, or of a delete-by-id query; null when the write is not tied to one document
+     */
+    private static String idOf(Document document) {
+        Object id = document != null ? document.get("_id") : null;
+        if (id instanceof ObjectId) {
+            return ((ObjectId) id).toHexString();
+        }
+        return id instanceof String ? (String) id : null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.diyawanna.sup.cache;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Cache key made of the invoked class and method plus the call's arguments
+ *
+ * The class/method part is an interned {@link Signature}, compared by
+ * identity; the arguments are kept by reference and compared with
+ * null-aware deep equality, so calls that differ only in a null argument or
+ * in argument boundaries never collide. The hash is computed once, when the
+ * key is created. Arguments must not be mutated after the call.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class CompositeCacheKey {
+
+    private final Signature signature;
+    private final Object[] params;
+    private final int hash;
+
+    CompositeCacheKey(Signature signature, Object[] params) {
+        this.signature = signature;
+        this.params = params;
+        this.hash = 31 * signature.hash + Arrays.deepHashCode(params);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompositeCacheKey)) {
+            return false;
+        }
+        CompositeCacheKey that = (CompositeCacheKey) other;
+        return hash == that.hash
+            && signature == that.signature
+            && Arrays.deepEquals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return signature.name + Arrays.deepToString(params);
+    }
+
+    /**
+     * Interned identity of one cached method on one target class
+     */
+    static final class Signature {
+        private final String name;
+        private final int hash;
+
+        Signature(Class<?> targetClass, Method method) {
+            this.name = targetClass.getSimpleName() + "." + method.getName();
+            this.hash = 31 * targetClass.hashCode() + method.hashCode();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.diyawanna.sup.cache;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cache.interceptor.KeyGenerator;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Key generator producing {@link CompositeCacheKey}s
+ *
+ * The class/method signature is resolved once per cached method and reused
+ * for every later call, so generating a key only wraps the argument array
+ * and hashes the arguments themselves.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class CompositeKeyGenerator implements KeyGenerator {
+
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    private final ClassValue<Map<Method, CompositeCacheKey.Signature>> signatures =
+        new ClassValue<Map<Method, CompositeCacheKey.Signature>>() {
+            @Override
+            protected Map<Method, CompositeCacheKey.Signature> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Class<?> targetClass = AopUtils.getTargetClass(target);
+        CompositeCacheKey.Signature signature = signatures.get(targetClass)
+            .computeIfAbsent(method, m -> new CompositeCacheKey.Signature(targetClass, m));
+        return new CompositeCacheKey(signature, params != null ? params : NO_PARAMS);
+    }
+}
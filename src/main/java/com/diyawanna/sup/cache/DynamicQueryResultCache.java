@@ -0,0 +1,268 @@
+package com.diyawanna.sup.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory result cache for dynamic query executions
+ * 
+ * This cache provides:
+ * - Keys made of the query identity and a canonical hash of the bound query
+ * - Per-entry time-to-live taken from the query or request settings
+ * - A size bound weighted by the number of cached documents
+ * - Eviction of every result read from a collection when that collection is written,
+ *   including collections joined through $lookup, $graphLookup and $unionWith
+ * 
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class DynamicQueryResultCache {
+
+    private static final JsonWriterSettings CANONICAL_JSON =
+            JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    @Value("${query.result-cache.max-weight:100000}")
+    private long maxWeight;
+
+    @Value("${query.result-cache.max-ttl-seconds:3600}")
+    private long maxTtlSeconds;
+
+    private Cache<ResultKey, CachedResult> cache;
+
+    // Bumped on every write to a collection so that loads racing a write are not cached
+    private final Map<String, AtomicLong> collectionVersions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((ResultKey key, CachedResult value) -> value.weight)
+                .recordStats()
+                .expireAfter(new Expiry<ResultKey, CachedResult>() {
+                    @Override
+                    public long expireAfterCreate(ResultKey key, CachedResult value, long currentTime) {
+                        return value.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ResultKey key, CachedResult value, long currentTime,
+                                                  long currentDuration) {
+                        return value.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ResultKey key, CachedResult value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Build the cache key for one execution
+     *
+     * @param queryKey   configured query name or stored query id
+     * @param collection source collection of the query
+     * @param boundQuery bound filter document or pipeline, with parameter values already typed
+     */
+    public ResultKey keyFor(String queryKey, String collection, Object boundQuery) {
+        String canonical = new Document("q", boundQuery).toJson(CANONICAL_JSON);
+        Set<String> collections = new HashSet<>();
+        collections.add(collection);
+        collectJoinedCollections(boundQuery, collections);
+        return new ResultKey(queryKey, Set.copyOf(collections), sha256(canonical));
+    }
+
+    /**
+     * Return the cached result for the key, or run the loader and cache its result for ttlSeconds
+     */
+    public Object get(ResultKey key, int ttlSeconds, Supplier<Object> loader) {
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.value;
+        }
+
+        long version = collectionsVersion(key);
+        Object value = loader.get();
+        if (value != null && ttlSeconds > 0 && collectionsVersion(key) == version) {
+            long ttl = TimeUnit.SECONDS.toNanos(Math.min(ttlSeconds, maxTtlSeconds));
+            cache.put(key, new CachedResult(value, ttl, weigh(value)));
+        }
+        return value;
+    }
+
+    /**
+     * Drop every cached result that was read from the given collection
+     */
+    public void evictCollection(String collection) {
+        collectionVersion(collection).incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.collections.contains(collection));
+    }
+
+    /**
+     * Drop every cached result of one query
+     */
+    public void evictQuery(String queryKey) {
+        cache.asMap().keySet().removeIf(key -> key.queryKey.equals(queryKey));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Hit, miss and eviction counters since startup
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Total weight of the cached results, in documents
+     */
+    public long weightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private AtomicLong collectionVersion(String collection) {
+        return collectionVersions.computeIfAbsent(collection, c -> new AtomicLong());
+    }
+
+    private long collectionsVersion(ResultKey key) {
+        long version = 0;
+        for (String collection : key.collections) {
+            version += collectionVersion(collection).get();
+        }
+        return version;
+    }
+
+    /**
+     * Find the collections an aggregation pipeline reads besides its source collection
+     */
+    private static void collectJoinedCollections(Object value, Set<String> collections) {
+        if (value instanceof Document) {
+            Document document = (Document) value;
+            for (String stage : new String[] {"$lookup", "$graphLookup"}) {
+                Object spec = document.get(stage);
+                if (spec instanceof Document && ((Document) spec).get("from") instanceof String) {
+                    collections.add(((Document) spec).getString("from"));
+                }
+            }
+            Object union = document.get("$unionWith");
+            if (union instanceof String) {
+                collections.add((String) union);
+            } else if (union instanceof Document && ((Document) union).get("coll") instanceof String) {
+                collections.add(((Document) union).getString("coll"));
+            }
+            for (Object nested : document.values()) {
+                collectJoinedCollections(nested, collections);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                collectJoinedCollections(element, collections);
+            }
+        }
+    }
+
+    private static int weigh(Object value) {
+        return value instanceof Collection ? Math.max(1, ((Collection<?>) value).size()) : 1;
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Identity of one cached execution
+     */
+    public static final class ResultKey {
+        private final String queryKey;
+        private final Set<String> collections;
+        private final String bindingHash;
+
+        private ResultKey(String queryKey, Set<String> collections, String bindingHash) {
+            this.queryKey = queryKey;
+            this.collections = collections;
+            this.bindingHash = bindingHash;
+        }
+
+        public String getQueryKey() {
+            return queryKey;
+        }
+
+        public Set<String> getCollections() {
+            return collections;
+        }
+
+        public String getBindingHash() {
+            return bindingHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ResultKey)) return false;
+            ResultKey other = (ResultKey) o;
+            return queryKey.equals(other.queryKey)
+                    && bindingHash.equals(other.bindingHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(queryKey, bindingHash);
+        }
+
+        @Override
+        public String toString() {
+            return queryKey + "#" + bindingHash + collections;
+        }
+    }
+
+    private static final class CachedResult {
+        private final Object value;
+        private final long ttlNanos;
+        private final int weight;
+
+        private CachedResult(Object value, long ttlNanos, int weight) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.diyawanna.sup.cache;
+
+import com.diyawanna.sup.config.CacheConfig;
+import com.diyawanna.sup.entity.User;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Periodic snapshot of the hottest cache entries, restored on startup
+ *
+ * For every entity cache, the hottest keys (by Caffeine's frequency
+ * estimate) are written to a local file, optionally with their values, so
+ * a restarted instance starts with the working set of the previous one.
+ * The snapshot is written on a schedule and on shutdown, through a
+ * temporary file that replaces the old one atomically.
+ *
+ * On startup the snapshot is revalidated before anything is cached: stored
+ * values are kept only when the document's updatedAt in MongoDB still
+ * matches, and everything else is reloaded with one $in query per cache.
+ * Deleted documents and keys the entity no longer has are dropped.
+ *
+ * Values of entities holding credentials (users and their password hashes)
+ * are never written; their keys are snapshotted without a value and
+ * reloaded from MongoDB on restore.
+ *
+ * File format (version 1), GZIP-compressed:
+ * int magic, short version, long createdAt, boolean includesValues,
+ * int cacheCount, then per cache: UTF name, int entryCount and per entry
+ * UTF key, UTF entityId and, with values, int length plus the JSON bytes
+ * (length 0 for an entry stored without its value).
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class HotKeySnapshot {
+
+    private static final int MAGIC = 0x44534B53;
+    private static final short FORMAT_VERSION = 1;
+    // Entity types whose values must not be written to disk
+    private static final Set<Class<?>> CREDENTIAL_TYPES = Set.of(User.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cache.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.snapshot.path:${user.home}/diyawanna-cache-snapshot.bin}")
+    private String path;
+
+    @Value("${cache.snapshot.keys-per-cache:2000}")
+    private int keysPerCache;
+
+    @Value("${cache.snapshot.include-values:true}")
+    private boolean includeValues;
+
+    @Value("${cache.snapshot.max-age-minutes:1440}")
+    private long maxAgeMinutes;
+
+    private ObjectMapper snapshotMapper;
+    private volatile boolean restored;
+
+    @PostConstruct
+    public void init() {
+        snapshotMapper = objectMapper.copy()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Restore the last snapshot before other startup work reads the caches
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void restoreOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            restore();
+        } catch (Exception e) {
+            System.err.println("Failed to restore cache snapshot from " + path + ": " + e.getMessage());
+        } finally {
+            restored = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.snapshot.interval-ms:300000}",
+               initialDelayString = "${cache.snapshot.interval-ms:300000}")
+    public void writePeriodically() {
+        if (enabled && restored) {
+            writeQuietly();
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        // An instance stopped before restoring would overwrite the snapshot with empty caches
+        if (enabled && restored) {
+            writeQuietly();
+        }
+    }
+
+    /**
+     * Write the hottest keys of every entity cache to the snapshot file
+     *
+     * @return number of entries written
+     */
+    public int write() throws IOException {
+        Path target = Paths.get(path);
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+
+        int written = 0;
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                List<String> cacheNames = entityCacheNames();
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                out.writeBoolean(includeValues);
+                out.writeInt(cacheNames.size());
+
+                for (String cacheName : cacheNames) {
+                    Map<String, Object> entries = hottestEntries(cacheName);
+                    out.writeUTF(cacheName);
+                    out.writeInt(entries.size());
+                    for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                        out.writeUTF(entry.getKey());
+                        out.writeUTF(cacheMaintenance.idOf(entry.getValue()));
+                        if (includeValues) {
+                            byte[] value = CREDENTIAL_TYPES.contains(entry.getValue().getClass())
+                                ? new byte[0] : mapper().writeValueAsBytes(entry.getValue());
+                            out.writeInt(value.length);
+                            out.write(value);
+                        }
+                        written++;
+                    }
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return written;
+    }
+
+    /**
+     * Load the snapshot file into the caches after revalidating it against MongoDB
+     *
+     * @return number of entries restored
+     */
+    public int restore() throws IOException {
+        Path source = Paths.get(path);
+        if (!Files.exists(source)) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        int restoredEntries = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(source))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a cache snapshot");
+            }
+            short version = in.readShort();
+            if (version != FORMAT_VERSION) {
+                System.out.println("Ignoring cache snapshot with unsupported format version " + version);
+                return 0;
+            }
+            long createdAt = in.readLong();
+            if (System.currentTimeMillis() - createdAt > TimeUnit.MINUTES.toMillis(maxAgeMinutes)) {
+                System.out.println("Ignoring cache snapshot older than " + maxAgeMinutes + " minutes");
+                return 0;
+            }
+            boolean hasValues = in.readBoolean();
+
+            int cacheCount = in.readInt();
+            for (int c = 0; c < cacheCount; c++) {
+                String cacheName = in.readUTF();
+                Class<?> type = cacheMaintenance.entityType(cacheName);
+                int entryCount = in.readInt();
+
+                Map<String, String> idsByKey = new LinkedHashMap<>();
+                Map<String, Object> valuesByKey = new HashMap<>();
+                for (int e = 0; e < entryCount; e++) {
+                    String key = in.readUTF();
+                    String id = in.readUTF();
+                    idsByKey.put(key, id);
+                    if (hasValues) {
+                        byte[] value = new byte[in.readInt()];
+                        in.readFully(value);
+                        if (type != null && value.length > 0 && !CREDENTIAL_TYPES.contains(type)) {
+                            valuesByKey.put(key, mapper().readValue(value, type));
+                        }
+                    }
+                }
+                Cache cache = cacheManager.getCache(cacheName);
+                if (type != null && cache != null) {
+                    restoredEntries += restoreCache(cache, type, idsByKey, valuesByKey);
+                }
+            }
+        }
+
+        System.out.println("Restored " + restoredEntries + " cache entries from snapshot in "
+            + (System.currentTimeMillis() - start) + " ms");
+        return restoredEntries;
+    }
+
+    private int restoreCache(Cache cache, Class<?> type, Map<String, String> idsByKey,
+                             Map<String, Object> valuesByKey) {
+        if (idsByKey.isEmpty()) {
+            return 0;
+        }
+        Set<String> ids = new HashSet<>(idsByKey.values());
+
+        // Current updatedAt of every snapshotted document; deleted documents are absent
+        Query versionQuery = new Query(Criteria.where("id").in(ids));
+        versionQuery.fields().include("updatedAt");
+        Map<String, LocalDateTime> currentVersions = new HashMap<>();
+        for (Object current : mongoTemplate.find(versionQuery, type)) {
+            currentVersions.put(cacheMaintenance.idOf(current), updatedAt(current));
+        }
+
+        Map<String, Object> entities = new HashMap<>();
+        Set<String> reloadIds = new HashSet<>();
+        for (Map.Entry<String, String> entry : idsByKey.entrySet()) {
+            String id = entry.getValue();
+            if (!currentVersions.containsKey(id)) {
+                continue;
+            }
+            Object value = valuesByKey.get(entry.getKey());
+            if (value != null && sameVersion(updatedAt(value), currentVersions.get(id))) {
+                entities.putIfAbsent(id, value);
+            } else {
+                reloadIds.add(id);
+            }
+        }
+        if (!reloadIds.isEmpty()) {
+            for (Object entity : mongoTemplate.find(new Query(Criteria.where("id").in(reloadIds)), type)) {
+                entities.put(cacheMaintenance.idOf(entity), entity);
+            }
+        }
+
+        int restoredEntries = 0;
+        for (Map.Entry<String, String> entry : idsByKey.entrySet()) {
+            Object entity = entities.get(entry.getValue());
+            // A renamed entity must not be restored under its old secondary key
+            if (entity != null && cacheMaintenance.keysOf(entity).contains(entry.getKey())
+                    && cache.putIfAbsent(entry.getKey(), entity) == null) {
+                restoredEntries++;
+            }
+        }
+        return restoredEntries;
+    }
+
+    /**
+     * Hottest entries of one cache holding a single entity under a String key
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> hottestEntries(String cacheName) {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        Cache cache = cacheManager.getCache(cacheName);
+        Class<?> type = cacheMaintenance.entityType(cacheName);
+        if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache)) {
+            return entries;
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+            (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+
+        // Over-fetch: aggregate lists are skipped below
+        Map<Object, Object> hottest = nativeCache.policy().eviction()
+            .map(eviction -> eviction.hottest(keysPerCache + 1))
+            .orElseGet(nativeCache::asMap);
+        for (Map.Entry<Object, Object> entry : hottest.entrySet()) {
+            if (entries.size() >= keysPerCache) {
+                break;
+            }
+            if (entry.getKey() instanceof String && type.isInstance(entry.getValue())
+                    && cacheMaintenance.idOf(entry.getValue()) != null) {
+                entries.put((String) entry.getKey(), entry.getValue());
+            }
+        }
+        return entries;
+    }
+
+    private List<String> entityCacheNames() {
+        List<String> names = new ArrayList<>();
+        for (String cacheName : CacheConfig.CACHE_NAMES) {
+            if (cacheMaintenance.entityType(cacheName) != null) {
+                names.add(cacheName);
+            }
+        }
+        return names;
+    }
+
+    private void writeQuietly() {
+        try {
+            long start = System.currentTimeMillis();
+            int written = write();
+            System.out.println("Wrote " + written + " cache entries to snapshot in "
+                + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Failed to write cache snapshot to " + path + ": " + e.getMessage());
+        }
+    }
+
+    private ObjectMapper mapper() {
+        return snapshotMapper;
+    }
+
+    private static LocalDateTime updatedAt(Object entity) {
+        Object value = PropertyAccessorFactory.forBeanPropertyAccess(entity).getPropertyValue("updatedAt");
+        return value instanceof LocalDateTime ? (LocalDateTime) value : null;
+    }
+
+    private static boolean sameVersion(LocalDateTime cached, LocalDateTime current) {
+        // MongoDB stores dates with millisecond precision
+        return cached != null && current != null
+            && cached.truncatedTo(ChronoUnit.MILLIS).equals(current.truncatedTo(ChronoUnit.MILLIS));
+    }
+}
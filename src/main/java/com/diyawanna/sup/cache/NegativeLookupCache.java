@@ -0,0 +1,84 @@
+package com.diyawanna.sup.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of lookups that found nothing
+ *
+ * Not-found lookups throw instead of returning a value, so the regular
+ * caches never remember them and every repeated probe for a missing
+ * username or name reaches MongoDB. This cache records such misses per
+ * cache name and key for a few seconds, bounded in size so that random
+ * probes cannot grow it without limit.
+ *
+ * {@link CacheMaintenance} forgets the keys of every created or updated
+ * entity, so a new record is visible immediately; writes on other nodes
+ * clear the negative entries of the affected cache.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class NegativeLookupCache {
+
+    @Value("${cache.negative.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${cache.negative.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private Cache<String, Boolean> misses;
+
+    @PostConstruct
+    public void init() {
+        misses = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Whether a lookup of the key recently found nothing
+     */
+    public boolean isKnownMissing(String cacheName, Object key) {
+        return misses.getIfPresent(entryKey(cacheName, key)) != null;
+    }
+
+    public void recordMissing(String cacheName, Object key) {
+        misses.put(entryKey(cacheName, key), Boolean.TRUE);
+    }
+
+    public void forget(String cacheName, Object key) {
+        misses.invalidate(entryKey(cacheName, key));
+    }
+
+    /**
+     * Forget every miss recorded for one cache
+     */
+    public void forgetAll(String cacheName) {
+        String prefix = cacheName + ":";
+        misses.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public CacheStats stats() {
+        return misses.stats();
+    }
+
+    public long size() {
+        return misses.estimatedSize();
+    }
+
+    private static String entryKey(String cacheName, Object key) {
+        return cacheName + ":" + key;
+    }
+}
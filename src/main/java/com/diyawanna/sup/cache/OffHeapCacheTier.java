@@ -0,0 +1,154 @@
+package com.diyawanna.sup.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Off-heap second cache level holding serialized entities
+ *
+ * Each value is written as JSON into its own direct ByteBuffer, so the heap
+ * only keeps the key and a small handle per entry while the entity graph
+ * itself lives outside the garbage-collected heap. The tier is bounded by
+ * the total number of serialized bytes and evicts with Caffeine's
+ * W-TinyLFU policy; the memory of an evicted buffer is released when its
+ * handle is collected, so -XX:MaxDirectMemorySize must leave headroom above
+ * the configured bound.
+ *
+ * Only single entities are stored. Collections such as the 'all_active'
+ * lists stay in the on-heap level only.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class OffHeapCacheTier {
+
+    // Heap and bookkeeping overhead charged to every entry on top of its payload
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final Cache<Object, Entry> entries;
+    private final CacheKeyIndex keyIndex = new CacheKeyIndex();
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param spec     Caffeine spec for expiry of the tier; size options are ignored
+     * @param maxBytes bound on the total serialized size of all entries
+     */
+    public OffHeapCacheTier(String spec, long maxBytes, ObjectMapper objectMapper) {
+        this.entries = Caffeine.from(spec)
+            .maximumWeight(maxBytes)
+            .weigher((Object key, Entry entry) -> entry.size + ENTRY_OVERHEAD_BYTES)
+            .evictionListener((Object key, Entry entry, RemovalCause cause) -> keyIndex.remove(key))
+            .recordStats()
+            .build();
+        this.objectMapper = objectMapper.copy()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Deserialize the value stored under the key, or return null when absent
+     */
+    public Object get(Object key) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = new byte[entry.size];
+            entry.buffer.duplicate().get(bytes);
+            return objectMapper.readValue(bytes, entry.type);
+        } catch (Exception e) {
+            evict(key);
+            System.err.println("Failed to read off-heap cache entry " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a serialized copy of the value, dropping any older copy when it cannot be stored
+     */
+    public void put(Object key, Object value) {
+        if (!isStorable(value)) {
+            evict(key);
+            return;
+        }
+        try {
+            JsonNode tree = objectMapper.valueToTree(value);
+            byte[] bytes = objectMapper.writeValueAsBytes(tree);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            JsonNode idNode = tree.get("id");
+            String id = idNode != null && !idNode.isNull() ? idNode.asText() : null;
+            entries.put(key, new Entry(value.getClass(), buffer.asReadOnlyBuffer(), bytes.length));
+            keyIndex.add(key, id);
+        } catch (Exception | OutOfMemoryError e) {
+            // Direct memory exhausted or value not serializable; serve it from the heap level only
+            evict(key);
+        }
+    }
+
+    public void evict(Object key) {
+        keyIndex.remove(key);
+        entries.invalidate(key);
+    }
+
+    public void clear() {
+        keyIndex.clear();
+        entries.invalidateAll();
+    }
+
+    /**
+     * Keys whose stored entity has the given id, looked up in the tier's id index
+     */
+    public List<Object> keysWithId(String id) {
+        return keyIndex.keysOf(id);
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    /**
+     * Serialized bytes currently held, including per-entry overhead
+     */
+    public long weightedSize() {
+        return entries.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L);
+    }
+
+    private static boolean isStorable(Object value) {
+        return value != null
+            && !(value instanceof Collection)
+            && !(value instanceof Map)
+            && !value.getClass().isArray();
+    }
+
+    /**
+     * Handle to one serialized value
+     */
+    private static final class Entry {
+        private final Class<?> type;
+        private final ByteBuffer buffer;
+        private final int size;
+
+        private Entry(Class<?> type, ByteBuffer buffer, int size) {
+            this.type = type;
+            this.buffer = buffer;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.diyawanna.sup.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caffeine-backed Spring cache that loads each missing key at most once at a time
+ * 
+ * Used by {@code @Cacheable(sync = true)} methods. On a miss the first caller
+ * becomes the loader for that key; concurrent callers for the same key wait on
+ * the loader's future instead of querying the database themselves, and give up
+ * with an error after the configured timeout. A write-driven eviction of a hot
+ * key therefore costs one database query, not one per waiting request.
+ * 
+ * With refresh-ahead enabled, a hit on an entry older than the configured
+ * fraction of its expire-after-write time schedules a background reload with
+ * the same loader. Readers keep getting the current value until the reload
+ * replaces it, so hot keys never expire under load.
+ * 
+ * Given a {@link CacheKeyIndex} and an entity id function, the cache keeps
+ * track of which keys hold which entity, so that a document changed
+ * elsewhere can be evicted under all of its keys without a scan.
+ * 
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class SingleFlightCaffeineCache extends CaffeineCache {
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    // Bumped by evictions so that a reload started before a write cannot restore the old value
+    private final AtomicLong evictionVersion = new AtomicLong();
+    private final long loadTimeoutMs;
+    private final double refreshAheadFraction;
+    private final Executor refreshExecutor;
+    private final CacheKeyIndex keyIndex;
+    private volatile Function<Object, String> entityId;
+
+    public SingleFlightCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues,
+                                     long loadTimeoutMs) {
+        this(name, cache, allowNullValues, loadTimeoutMs, 0, null);
+    }
+
+    public SingleFlightCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues,
+                                     long loadTimeoutMs, double refreshAheadFraction, Executor refreshExecutor) {
+        this(name, cache, allowNullValues, loadTimeoutMs, refreshAheadFraction, refreshExecutor, null);
+    }
+
+    /**
+     * @param refreshAheadFraction fraction of the expire-after-write time after which a read
+     *                             triggers a background reload; 0 disables refresh-ahead
+     * @param keyIndex             index of the keys holding each entity; the Caffeine cache must
+     *                             remove evicted keys from it with an eviction listener
+     */
+    public SingleFlightCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues,
+                                     long loadTimeoutMs, double refreshAheadFraction, Executor refreshExecutor,
+                                     CacheKeyIndex keyIndex) {
+        super(name, cache, allowNullValues);
+        this.loadTimeoutMs = loadTimeoutMs;
+        this.refreshAheadFraction = refreshExecutor != null ? refreshAheadFraction : 0;
+        this.refreshExecutor = refreshExecutor;
+        this.keyIndex = keyIndex;
+    }
+
+    /**
+     * Start indexing stored values by entity id
+     *
+     * @param entityId id of a cached value, or null for values that are not single entities
+     */
+    public void indexEntitiesBy(Function<Object, String> entityId) {
+        this.entityId = entityId;
+    }
+
+    /**
+     * Keys whose cached value is the entity with the given id
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> keysWithId(String id) {
+        Function<Object, String> idFunction = entityId;
+        if (idFunction == null) {
+            return new ArrayList<>();
+        }
+        if (keyIndex != null) {
+            return keyIndex.keysOf(id);
+        }
+        List<Object> keys = new ArrayList<>();
+        getNativeCache().asMap().forEach((key, value) -> {
+            if (id.equals(idFunction.apply(fromStoreValue(value)))) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Peek without touching the statistics; the hit or the load below records them once
+        if (getNativeCache().policy().getIfPresentQuietly(key) != null) {
+            ValueWrapper cached = get(key);
+            if (cached != null) {
+                refreshAheadIfDue(key, valueLoader);
+                return (T) cached.get();
+            }
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return (T) awaitLoad(key, valueLoader, existing);
+        }
+
+        try {
+            Object storeValue = getNativeCache().get(key, k -> {
+                try {
+                    return toStoreValue(load(k, valueLoader));
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+            });
+            Object value = fromStoreValue(storeValue);
+            stored(key, value);
+            flight.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        stored(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            stored(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictionVersion.incrementAndGet();
+        unindex(key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evictionVersion.incrementAndGet();
+        unindex(key);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        evictionVersion.incrementAndGet();
+        if (keyIndex != null) {
+            keyIndex.clear();
+        }
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        evictionVersion.incrementAndGet();
+        if (keyIndex != null) {
+            keyIndex.clear();
+        }
+        return super.invalidate();
+    }
+
+    /**
+     * Produce the value of a missing key; runs once per key while concurrent callers wait
+     */
+    protected Object load(Object key, Callable<?> valueLoader) throws Exception {
+        return valueLoader.call();
+    }
+
+    /**
+     * Called after refresh-ahead replaced the cached value of a key
+     */
+    protected void refreshed(Object key, Object value) {
+    }
+
+    /**
+     * Index a value after it was stored in this level; indexing after the store never leaves a cached key unindexed
+     */
+    protected void stored(Object key, Object value) {
+        Function<Object, String> idFunction = entityId;
+        if (keyIndex != null && idFunction != null && value != null) {
+            keyIndex.add(key, idFunction.apply(value));
+        }
+    }
+
+    private void unindex(Object key) {
+        if (keyIndex != null) {
+            keyIndex.remove(key);
+        }
+    }
+
+    /**
+     * Schedule a background reload when the entry has lived past the refresh-ahead threshold
+     */
+    private void refreshAheadIfDue(Object key, Callable<?> valueLoader) {
+        if (refreshAheadFraction <= 0 || refreshing.contains(key)) {
+            return;
+        }
+        getNativeCache().policy().expireAfterWrite().ifPresent(expiration -> {
+            OptionalLong age = expiration.ageOf(key, TimeUnit.NANOSECONDS);
+            long threshold = (long) (expiration.getExpiresAfter(TimeUnit.NANOSECONDS) * refreshAheadFraction);
+            if (age.isPresent() && age.getAsLong() >= threshold && refreshing.add(key)) {
+                long version = evictionVersion.get();
+                try {
+                    refreshExecutor.execute(() -> reload(key, valueLoader, version));
+                } catch (RejectedExecutionException e) {
+                    // Refresh pool saturated; the entry is still served and will be reloaded on expiry
+                    refreshing.remove(key);
+                }
+            }
+        });
+    }
+
+    private void reload(Object key, Callable<?> valueLoader, long version) {
+        try {
+            Object value = valueLoader.call();
+            if (value != null && evictionVersion.get() == version
+                    && getNativeCache().asMap().computeIfPresent(key, (k, current) -> toStoreValue(value)) != null) {
+                stored(key, value);
+                refreshed(key, value);
+            }
+        } catch (Exception e) {
+            System.err.println("Refresh-ahead of cache '" + getName() + "' key " + key + " failed: " + e.getMessage());
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private Object awaitLoad(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            return flight.get(loadTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ValueRetrievalException(key, valueLoader, new TimeoutException(
+                    "Timed out after " + loadTimeoutMs + " ms waiting for cache '" + getName() + "' to load key " + key));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ValueRetrievalException) {
+                throw (ValueRetrievalException) e.getCause();
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.diyawanna.sup.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Near cache with an on-heap first level and an off-heap second level
+ *
+ * The Caffeine cache is the small, fast first level (L1). Every loaded or
+ * written value is also stored serialized in an {@link OffHeapCacheTier}
+ * (L2), which can be much larger without adding to heap or GC work. An L1
+ * miss is answered from L2 when possible and only goes to the database when
+ * both levels miss; the single-flight guarantee covers both lookups.
+ *
+ * Evictions always remove the key from both levels, L1 first so that a load
+ * still writing to L2 completes before its copy is dropped.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class TwoTierCaffeineCache extends SingleFlightCaffeineCache {
+
+    private final OffHeapCacheTier secondTier;
+
+    public TwoTierCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues,
+                                long loadTimeoutMs, double refreshAheadFraction, Executor refreshExecutor,
+                                CacheKeyIndex keyIndex, OffHeapCacheTier secondTier) {
+        super(name, cache, allowNullValues, loadTimeoutMs, refreshAheadFraction, refreshExecutor, keyIndex);
+        this.secondTier = secondTier;
+    }
+
+    public OffHeapCacheTier getSecondTier() {
+        return secondTier;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object storeValue = super.lookup(key);
+        if (storeValue != null) {
+            return storeValue;
+        }
+        Object value = secondTier.get(key);
+        if (value == null) {
+            return null;
+        }
+        storeValue = toStoreValue(value);
+        getNativeCache().put(key, storeValue);
+        stored(key, value);
+        return storeValue;
+    }
+
+    @Override
+    protected Object load(Object key, Callable<?> valueLoader) throws Exception {
+        Object value = secondTier.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = super.load(key, valueLoader);
+        secondTier.put(key, value);
+        return value;
+    }
+
+    @Override
+    protected void refreshed(Object key, Object value) {
+        secondTier.put(key, value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        secondTier.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            secondTier.put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        secondTier.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = super.evictIfPresent(key);
+        secondTier.evict(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        secondTier.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = super.invalidate();
+        secondTier.clear();
+        return present;
+    }
+
+    /**
+     * Keys of either level holding the entity with the given id
+     */
+    @Override
+    public List<Object> keysWithId(String id) {
+        List<Object> keys = super.keysWithId(id);
+        for (Object key : secondTier.keysWithId(id)) {
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,119 @@
+package com.diyawanna.sup.cache;
+
+import org.bson.Document;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persisted record of recently accessed users, used to warm the users cache
+ *
+ * Accesses are collected in memory and flushed periodically as one bulk
+ * upsert of {_id: userId, lastAccess} per user into the user_access_log
+ * collection, shared by all nodes. A TTL index drops users not seen within
+ * the retention period.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class UserAccessLog {
+
+    public static final String ACCESS_LOG_COLLECTION = "user_access_log";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${cache.warmup.access-log.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${cache.warmup.access-log.max-pending:10000}")
+    private int maxPending;
+
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void createIndexes() {
+        try {
+            mongoTemplate.indexOps(ACCESS_LOG_COLLECTION).ensureIndex(
+                new Index().on("lastAccess", Sort.Direction.DESC).expire(Duration.ofDays(retentionDays)));
+        } catch (Exception e) {
+            System.err.println("Failed to create user access log index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Note that a user was accessed; cheap enough for every request
+     */
+    public void record(String userId) {
+        if (userId == null || (pending.size() >= maxPending && !pending.containsKey(userId))) {
+            return;
+        }
+        pending.put(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Write pending accesses to the database
+     */
+    @Scheduled(fixedDelayString = "${cache.warmup.access-log.flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ACCESS_LOG_COLLECTION);
+        int count = 0;
+        for (String userId : new ArrayList<>(pending.keySet())) {
+            Long accessedAt = pending.remove(userId);
+            if (accessedAt != null) {
+                bulk.upsert(Query.query(Criteria.where("_id").is(userId)),
+                    Update.update("lastAccess", new Date(accessedAt)));
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        try {
+            bulk.execute();
+        } catch (Exception e) {
+            System.err.println("Failed to flush " + count + " user accesses: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Ids of the most recently accessed users, newest first
+     */
+    public List<String> recentUserIds(int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "lastAccess")).limit(limit);
+        query.fields().include("_id");
+        List<String> userIds = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, ACCESS_LOG_COLLECTION)) {
+            userIds.add(String.valueOf(document.get("_id")));
+        }
+        return userIds;
+    }
+}
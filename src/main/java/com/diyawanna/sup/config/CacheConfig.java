@@ -1,23 +1,57 @@
 package com.diyawanna.sup.config;
 
+import com.diyawanna.sup.cache.CacheEntryWeigher;
+import com.diyawanna.sup.cache.CacheKeyIndex;
+import com.diyawanna.sup.cache.CompositeKeyGenerator;
+import com.diyawanna.sup.cache.OffHeapCacheTier;
+import com.diyawanna.sup.cache.SingleFlightCaffeineCache;
+import com.diyawanna.sup.cache.TwoTierCaffeineCache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Cache configuration for performance optimization
  * 
  * This configuration provides:
- * - Cache manager setup
- * - Custom key generation
- * - Cache timeout configuration
- * - Performance monitoring
+ * - Bounded Caffeine caches (W-TinyLFU admission and eviction)
+ * - Per-cache size and expiry from application properties
+ * - Hit, miss, load and eviction statistics for every cache
+ * - Single-flight loading for @Cacheable(sync = true) methods
+ * - Refresh-ahead of hot entries before they expire
+ * - Optional off-heap second level per cache
+ * - An id-to-keys index per named cache for targeted remote evictions
+ * - Structured composite keys for the custom key generator
+ * 
+ * Each cache is configured with a Caffeine spec from cache.spec.&lt;name&gt;,
+ * falling back to cache.default-spec, e.g.
+ * cache.spec.users=maximumSize=5000,expireAfterWrite=10m. Setting
+ * cache.max-bytes.&lt;name&gt; bounds that cache by estimated bytes instead
+ * of entry count. cache.refresh-ahead.fraction (or
+ * cache.refresh-ahead.fraction.&lt;name&gt;) sets the share of the
+ * expire-after-write time after which a read reloads the entry in the
+ * background; 0 disables it. Setting cache.l2.max-bytes.&lt;name&gt; adds an
+ * off-heap second level of that many bytes behind the cache, expiring per
+ * cache.l2.spec.&lt;name&gt; or cache.l2.default-spec.
  * 
  * @author Diyawanna Team
  * @version 1.0.0
@@ -26,53 +60,120 @@ import java.util.Arrays;
 @EnableCaching
 public class CacheConfig {
 
+    public static final List<String> CACHE_NAMES = Arrays.asList(
+        "users",
+        "universities",
+        "faculties",
+        "carts",
+        "queries",
+        "authentication",
+        "statistics"
+    );
+
+    @Value("${cache.default-spec:maximumSize=1000,expireAfterWrite=10m}")
+    private String defaultSpec;
+
+    @Value("${cache.load-timeout-ms:5000}")
+    private long loadTimeoutMs;
+
+    @Value("${cache.refresh-ahead.fraction:0.8}")
+    private double refreshAheadFraction;
+
+    @Value("${cache.l2.default-spec:expireAfterWrite=60m}")
+    private String secondTierDefaultSpec;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    @Qualifier("cacheRefreshExecutor")
+    private ThreadPoolTaskExecutor cacheRefreshExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Key indexes of the named caches, created with their builders so evictions can unlink keys
+    private final Map<String, CacheKeyIndex> keyIndexes = new ConcurrentHashMap<>();
+
     /**
-     * Configure cache manager with multiple cache regions
+     * Configure cache manager with multiple bounded cache regions
      */
     @Bean
     public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        
-        // Define cache names for different entities
-        cacheManager.setCacheNames(Arrays.asList(
-            "users",
-            "universities", 
-            "faculties",
-            "carts",
-            "queries",
-            "dynamic-queries",
-            "authentication",
-            "statistics"
-        ));
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                double fraction = environment.getProperty("cache.refresh-ahead.fraction." + name,
+                    Double.class, refreshAheadFraction);
+                CacheKeyIndex keyIndex = keyIndexes.get(name);
+                OffHeapCacheTier secondTier = secondTier(name);
+                if (secondTier != null) {
+                    return new TwoTierCaffeineCache(name, cache, isAllowNullValues(), loadTimeoutMs,
+                        fraction, cacheRefreshExecutor, keyIndex, secondTier);
+                }
+                return new SingleFlightCaffeineCache(name, cache, isAllowNullValues(), loadTimeoutMs,
+                    fraction, cacheRefreshExecutor, keyIndex);
+            }
+        };
         
-        // Allow dynamic cache creation
+        // Caches created on demand for names not listed below use the default spec
+        cacheManager.setCaffeine(Caffeine.from(defaultSpec).recordStats());
         cacheManager.setAllowNullValues(false);
         
+        for (String cacheName : CACHE_NAMES) {
+            cacheManager.registerCustomCache(cacheName, cacheBuilder(cacheName).build());
+        }
+        
         return cacheManager;
     }
 
+    /**
+     * Build the Caffeine configuration of one named cache
+     */
+    private Caffeine<Object, Object> cacheBuilder(String cacheName) {
+        String spec = environment.getProperty("cache.spec." + cacheName, defaultSpec);
+        Long maxBytes = environment.getProperty("cache.max-bytes." + cacheName, Long.class);
+        CacheKeyIndex keyIndex = keyIndexes.computeIfAbsent(cacheName, name -> new CacheKeyIndex());
+        
+        Caffeine<Object, Object> builder;
+        if (maxBytes == null) {
+            builder = Caffeine.from(spec);
+        } else {
+            // A byte bound replaces the entry-count bound of the spec
+            builder = Caffeine.from(withoutSizeBound(spec))
+                .maximumWeight(maxBytes)
+                .weigher(new CacheEntryWeigher(objectMapper));
+        }
+        return builder
+            .evictionListener((Object key, Object value, RemovalCause cause) -> keyIndex.remove(key))
+            .recordStats();
+    }
+
+    /**
+     * Build the off-heap second level of a cache, or null when none is configured
+     */
+    private OffHeapCacheTier secondTier(String cacheName) {
+        Long maxBytes = environment.getProperty("cache.l2.max-bytes." + cacheName, Long.class);
+        if (maxBytes == null || maxBytes <= 0) {
+            return null;
+        }
+        String spec = environment.getProperty("cache.l2.spec." + cacheName, secondTierDefaultSpec);
+        return new OffHeapCacheTier(withoutSizeBound(spec), maxBytes, objectMapper);
+    }
+
+    private static String withoutSizeBound(String spec) {
+        return Arrays.stream(spec.split(","))
+            .map(String::trim)
+            .filter(option -> !option.startsWith("maximumSize") && !option.startsWith("maximumWeight"))
+            .reduce((a, b) -> a + "," + b)
+            .orElse("");
+    }
+
     /**
      * Custom key generator for cache keys
      */
     @Bean("customKeyGenerator")
     public KeyGenerator keyGenerator() {
-        return new KeyGenerator() {
-            @Override
-            public Object generate(Object target, Method method, Object... params) {
-                StringBuilder sb = new StringBuilder();
-                sb.append(target.getClass().getSimpleName());
-                sb.append(".");
-                sb.append(method.getName());
-                
-                for (Object param : params) {
-                    if (param != null) {
-                        sb.append("_").append(param.toString());
-                    }
-                }
-                
-                return sb.toString();
-            }
-        };
+        return new CompositeKeyGenerator();
     }
 }
-
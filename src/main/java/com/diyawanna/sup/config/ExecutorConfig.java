@@ -0,0 +1,126 @@
+package com.diyawanna.sup.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor configuration for concurrent background work
+ * 
+ * This configuration provides:
+ * - Bounded executor for batch dynamic query fan-out
+ * - Bounded executor for cache refresh-ahead reloads
+ * - Concurrency-limited executor for cache warm-up
+ * - CPU-sized executor for password hashing during bulk imports
+ * 
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${query.batch.pool-size:16}")
+    private int batchPoolSize;
+
+    @Value("${query.batch.queue-capacity:256}")
+    private int batchQueueCapacity;
+
+    @Value("${cache.refresh-ahead.pool-size:4}")
+    private int refreshPoolSize;
+
+    @Value("${cache.refresh-ahead.queue-capacity:100}")
+    private int refreshQueueCapacity;
+
+    @Value("${cache.warmup.concurrency:4}")
+    private int warmUpConcurrency;
+
+    @Value("${cache.warmup.queue-capacity:64}")
+    private int warmUpQueueCapacity;
+
+    @Value("${bulk-import.hash-concurrency:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int importHashConcurrency;
+
+    @Value("${bulk-import.queue-capacity:1000}")
+    private int bulkImportQueueCapacity;
+
+    /**
+     * Bounded pool for batch query execution
+     *
+     * The pool is sized to stay well inside the MongoDB connection pool; when
+     * both threads and queue are exhausted, new tasks are rejected rather than
+     * piling up, and the batch reports them as failed.
+     */
+    @Bean(name = "dynamicQueryExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor dynamicQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchPoolSize);
+        executor.setMaxPoolSize(batchPoolSize);
+        executor.setQueueCapacity(batchQueueCapacity);
+        executor.setThreadNamePrefix("dynamic-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small pool for background cache reloads
+     *
+     * Refreshes are best-effort: when the pool is busy they are rejected and
+     * the entry is simply reloaded on its next miss.
+     */
+    @Bean(name = "cacheRefreshExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refreshPoolSize);
+        executor.setMaxPoolSize(refreshPoolSize);
+        executor.setQueueCapacity(refreshQueueCapacity);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool that limits how many cache warm-up loads run against the database at once
+     *
+     * When the queue is full the submitting warm-up thread runs the load
+     * itself, which throttles task submission instead of dropping loads.
+     */
+    @Bean(name = "cacheWarmUpExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor cacheWarmUpExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(warmUpConcurrency);
+        executor.setMaxPoolSize(warmUpConcurrency);
+        executor.setQueueCapacity(warmUpQueueCapacity);
+        executor.setThreadNamePrefix("cache-warmup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool for the CPU-bound password hashing of bulk imports
+     *
+     * Sized to the available processors by default. A full queue makes the
+     * importing request thread hash the row itself, so a chunk never fails
+     * because the pool is busy.
+     */
+    @Bean(name = "bulkImportExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor bulkImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(importHashConcurrency);
+        executor.setMaxPoolSize(importHashConcurrency);
+        executor.setQueueCapacity(bulkImportQueueCapacity);
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -9,11 +9,17 @@ import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.index.IndexDefinition;
 import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCommandException;
 
 import com.diyawanna.sup.entity.User;
 import com.diyawanna.sup.entity.University;
@@ -23,6 +29,7 @@ import com.diyawanna.sup.entity.Query;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -31,7 +38,8 @@ import java.util.concurrent.TimeUnit;
  * This configuration class:
  * - Sets up MongoDB Atlas connection
  * - Configures connection pooling
- * - Creates database indexes for performance optimization
+ * - Creates database indexes for performance optimization and uniqueness
+ * - Backfills the optimistic locking version of existing documents
  * - Configures auditing
  * 
  * @author Diyawanna Team
@@ -40,6 +48,12 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
+    public static final String UNIQUE_EMAIL_INDEX = "email_unique";
+
+    // Server error codes for an index clashing with an existing one on the same keys
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    private static final int INDEX_KEY_SPECS_CONFLICT = 86;
+
     @Value("${spring.data.mongodb.uri}")
     private String mongoUri;
 
@@ -102,7 +116,6 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
             // User collection indexes
             IndexOperations userIndexOps = mongoTemplate.indexOps(User.class);
             userIndexOps.ensureIndex(new Index().on("username", org.springframework.data.domain.Sort.Direction.ASC).unique());
-            userIndexOps.ensureIndex(new Index().on("email", org.springframework.data.domain.Sort.Direction.ASC));
             userIndexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC));
             userIndexOps.ensureIndex(new Index().on("createdAt", org.springframework.data.domain.Sort.Direction.DESC));
             
@@ -143,10 +156,116 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
             facultyIndexOps.ensureIndex(new Index().on("universityId", org.springframework.data.domain.Sort.Direction.ASC)
                                                   .on("active", org.springframework.data.domain.Sort.Direction.ASC));
             
+            // Keyset pagination: active records walked newest-first by _id
+            for (IndexOperations indexOps : new IndexOperations[] {userIndexOps, universityIndexOps, facultyIndexOps, cartIndexOps, queryIndexOps}) {
+                indexOps.ensureIndex(new Index().on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.DESC));
+            }
+            
+            // Keyset pagination of the filtered lists: equality field first, then active and _id
+            userIndexOps.ensureIndex(new Index().on("university", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                .on("_id", org.springframework.data.domain.Sort.Direction.DESC));
+            facultyIndexOps.ensureIndex(new Index().on("universityId", org.springframework.data.domain.Sort.Direction.ASC)
+                                                  .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                                  .on("_id", org.springframework.data.domain.Sort.Direction.DESC));
+            cartIndexOps.ensureIndex(new Index().on("userId", org.springframework.data.domain.Sort.Direction.ASC)
+                                               .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                               .on("_id", org.springframework.data.domain.Sort.Direction.DESC));
+            cartIndexOps.ensureIndex(new Index().on("status", org.springframework.data.domain.Sort.Direction.ASC)
+                                               .on("active", org.springframework.data.domain.Sort.Direction.ASC)
+                                               .on("_id", org.springframework.data.domain.Sort.Direction.DESC));
+            
         } catch (Exception e) {
             // Log error but don't fail application startup
             System.err.println("Error creating MongoDB indexes: " + e.getMessage());
         }
     }
+
+    /**
+     * Enforce email uniqueness with a unique index
+     *
+     * Profile updates and bulk imports rely on the index instead of checking
+     * the email first, so startup fails when it cannot be built (typically
+     * because existing users share an email). Users without an email are
+     * left out of the index. The earlier non-unique email_1 index is only
+     * dropped once the unique index exists.
+     */
+    @PostConstruct
+    public void createUniqueEmailIndex() {
+        try {
+            IndexOperations userIndexOps = mongoTemplate().indexOps(User.class);
+            boolean uniqueIndexExists = false;
+            boolean legacyIndexExists = false;
+            for (IndexInfo indexInfo : userIndexOps.getIndexInfo()) {
+                if (indexInfo.isIndexForFields(List.of("email")) && indexInfo.isUnique()) {
+                    uniqueIndexExists = true;
+                } else if ("email_1".equals(indexInfo.getName())) {
+                    legacyIndexExists = true;
+                }
+            }
+            Index uniqueEmail = new Index().on("email", org.springframework.data.domain.Sort.Direction.ASC)
+                                           .named(UNIQUE_EMAIL_INDEX)
+                                           .unique()
+                                           .partial(PartialIndexFilter.of(Criteria.where("email").type(JsonSchemaObject.Type.stringType())));
+            if (!uniqueIndexExists) {
+                try {
+                    userIndexOps.ensureIndex(uniqueEmail);
+                } catch (RuntimeException e) {
+                    if (!legacyIndexExists || !isIndexConflict(e)) {
+                        throw e;
+                    }
+                    // Servers that allow one index per key pattern need email_1 gone first
+                    userIndexOps.dropIndex("email_1");
+                    legacyIndexExists = false;
+                    userIndexOps.ensureIndex(uniqueEmail);
+                }
+            }
+            if (legacyIndexExists) {
+                userIndexOps.dropIndex("email_1");
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Unique email index could not be built; resolve duplicate user emails "
+                + "before starting the application: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether an index build failed because an index with the same key pattern exists
+     */
+    private static boolean isIndexConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoCommandException) {
+                int code = ((MongoCommandException) cause).getErrorCode();
+                return code == INDEX_OPTIONS_CONFLICT || code == INDEX_KEY_SPECS_CONFLICT;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Give documents written before optimistic locking a version of 0
+     *
+     * Spring Data treats an entity with a null version as new, so saving a
+     * loaded document that has no version field would be attempted as an
+     * insert and fail on its existing _id.
+     */
+    @PostConstruct
+    public void backfillVersions() {
+        try {
+            MongoTemplate mongoTemplate = mongoTemplate();
+            for (Class<?> entityClass : new Class<?>[] {User.class, University.class, Faculty.class, Cart.class, Query.class}) {
+                long updated = mongoTemplate.updateMulti(
+                    new org.springframework.data.mongodb.core.query.Query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L),
+                    entityClass).getModifiedCount();
+                if (updated > 0) {
+                    System.out.println("Initialized version of " + updated + " " + mongoTemplate.getCollectionName(entityClass) + " documents");
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error backfilling document versions: " + e.getMessage());
+        }
+    }
 }
 
@@ -1,15 +1,23 @@
 package com.diyawanna.sup.controller;
 
+import com.diyawanna.sup.dto.BulkImportResult;
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.Cart;
 import com.diyawanna.sup.entity.Cart.CartItem;
+import com.diyawanna.sup.service.BulkImportService;
 import com.diyawanna.sup.service.CartService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -30,11 +38,15 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
     @GetMapping
-    public ResponseEntity<?> getAllCarts() {
+    public ResponseEntity<?> getAllCarts(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Cart> carts = cartService.getAllActiveCarts();
-            return ResponseEntity.ok(carts);
+            CursorPage<Cart> page = cartService.getActiveCartsPage(cursor, size);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve carts");
@@ -69,11 +81,34 @@ public class CartController {
         }
     }
 
+    /**
+     * Import carts in bulk
+     * POST /api/carts/bulk with a JSON array, or NDJSON (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> importCarts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        try {
+            BulkImportResult result = bulkImportService.importCarts(body, contentType);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to import carts");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateCart(@PathVariable String id, @RequestBody Cart cart) {
         try {
             Cart updatedCart = cartService.updateCart(id, cart);
             return ResponseEntity.ok(updatedCart);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Cart was modified concurrently");
+            error.put("message", "Reload the cart and apply the changes to its current version");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to update cart");
@@ -98,10 +133,11 @@ public class CartController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getCartsByUser(@PathVariable String userId) {
+    public ResponseEntity<?> getCartsByUser(@PathVariable String userId,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            List<Cart> carts = cartService.getCartsByUser(userId);
-            return ResponseEntity.ok(carts);
+            CursorPage<Cart> page = cartService.getCartsByUserPage(userId, cursor, size);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve carts");
@@ -130,10 +166,11 @@ public class CartController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getCartsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getCartsByStatus(@PathVariable String status,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            List<Cart> carts = cartService.getCartsByStatus(status);
-            return ResponseEntity.ok(carts);
+            CursorPage<Cart> page = cartService.getCartsByStatusPage(status, cursor, size);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve carts");
@@ -1,20 +1,35 @@
 package com.diyawanna.sup.controller;
 
 import com.diyawanna.sup.service.DynamicQueryService;
+import com.diyawanna.sup.dto.BatchQueryRequest;
 import com.diyawanna.sup.dto.QueryExecutionRequest;
 import com.diyawanna.sup.dto.QueryExecutionResponse;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Dynamic Query controller for executing stored and configured queries
@@ -24,6 +39,7 @@ import java.util.Map;
  * - Stored query execution from database
  * - Query validation and parameter checking
  * - Sample query examples and documentation
+ * - Streaming NDJSON results for large result sets
  * 
  * @author Diyawanna Team
  * @version 1.0.0
@@ -33,15 +49,23 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class DynamicQueryController {
 
+    private static final JsonWriterSettings NDJSON_SETTINGS =
+            JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
     @Autowired
     private DynamicQueryService dynamicQueryService;
 
     /**
      * Execute dynamic query with parameters
      * POST /api/dynamic-query/execute
+     *
+     * Sending "Accept: application/x-ndjson" (or "stream": true in the body)
+     * streams one JSON document per line straight from the MongoDB cursor
+     * instead of buffering the whole result.
      */
     @PostMapping("/execute")
-    public ResponseEntity<?> executeDynamicQuery(@Valid @RequestBody QueryExecutionRequest request) {
+    public ResponseEntity<?> executeDynamicQuery(@Valid @RequestBody QueryExecutionRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
             // Validate parameters
             if (!dynamicQueryService.validateParameters(request.getQueryName(), request.getParameters())) {
@@ -51,8 +75,17 @@ public class DynamicQueryController {
                 return ResponseEntity.badRequest().body(error);
             }
 
+            if (request.isStream() || (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE))) {
+                Stream<Document> documents = dynamicQueryService.streamDynamicQuery(
+                        request.getQueryName(), request.getParameters());
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(toNdjson(documents));
+            }
+
             // Execute query
-            Object result = dynamicQueryService.executeDynamicQuery(request.getQueryName(), request.getParameters());
+            Object result = dynamicQueryService.executeDynamicQuery(request.getQueryName(), request.getParameters(),
+                    request.isCacheable(), request.getCacheTimeoutSeconds());
             
             // Create response
             QueryExecutionResponse response = new QueryExecutionResponse();
@@ -75,6 +108,38 @@ public class DynamicQueryController {
         }
     }
 
+    /**
+     * Execute several dynamic queries concurrently in one round trip
+     * POST /api/dynamic-query/execute-batch
+     */
+    @PostMapping("/execute-batch")
+    public ResponseEntity<?> executeBatch(@Valid @RequestBody BatchQueryRequest request) {
+        try {
+            long start = System.currentTimeMillis();
+            List<QueryExecutionResponse> results = dynamicQueryService.executeBatch(
+                    request.getQueries(), request.getTimeoutMs());
+
+            long failed = results.stream().filter(result -> !result.isSuccess()).count();
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", failed == 0);
+            response.put("results", results);
+            response.put("queryCount", results.size());
+            response.put("failedCount", failed);
+            response.put("executionDurationMs", System.currentTimeMillis() - start);
+            response.put("timestamp", LocalDateTime.now());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("error", dynamicQueryService.getErrorMessage("execution_failed"));
+            error.put("message", e.getMessage());
+            error.put("timestamp", LocalDateTime.now());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     /**
      * Execute stored query from database
      * POST /api/dynamic-query/execute-stored/{queryId}
@@ -174,14 +239,17 @@ public class DynamicQueryController {
             docs.put("description", "Dynamic Query API allows execution of predefined queries with parameter substitution");
             docs.put("version", "1.0.0");
             docs.put("endpoints", Map.of(
-                "execute", "POST /api/dynamic-query/execute - Execute dynamic query",
+                "execute", "POST /api/dynamic-query/execute - Execute dynamic query (NDJSON with Accept: application/x-ndjson or \"stream\": true)",
+                "execute-batch", "POST /api/dynamic-query/execute-batch - Execute several queries concurrently",
                 "execute-stored", "POST /api/dynamic-query/execute-stored/{queryId} - Execute stored query",
                 "mappings", "GET /api/dynamic-query/mappings - Get available query mappings",
                 "samples", "GET /api/dynamic-query/samples - Get sample queries",
                 "validate", "POST /api/dynamic-query/validate - Validate query parameters"
             ));
-            docs.put("queryFormat", "Queries use ${parameterName} syntax for parameter substitution");
+            docs.put("queryFormat", "Queries use ${parameterName} or ${parameterName:Type} syntax for typed parameter binding");
+            docs.put("parameterTypes", new String[]{"String", "Integer", "Long", "Double", "Decimal128", "Boolean", "ObjectId", "Date", "Array<Type>"});
             docs.put("supportedTypes", new String[]{"FIND", "AGGREGATE", "COUNT"});
+            docs.put("filterOperators", "FIND and COUNT filters are passed to MongoDB as-is; all query operators are supported");
             docs.put("timestamp", LocalDateTime.now());
             
             return ResponseEntity.ok(docs);
@@ -218,5 +286,34 @@ public class DynamicQueryController {
             return ResponseEntity.status(503).body(error);
         }
     }
-}
 
+    /**
+     * Write documents as newline-delimited JSON while they are read from the cursor
+     *
+     * Writes block while the client is slow, so the cursor is only advanced as
+     * fast as the response is consumed. The first document is flushed
+     * immediately; the rest go out as the write buffer fills.
+     */
+    private StreamingResponseBody toNdjson(Stream<Document> documents) {
+        return outputStream -> {
+            try (Stream<Document> stream = documents) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                Iterator<Document> iterator = stream.iterator();
+                boolean first = true;
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next().toJson(NDJSON_SETTINGS));
+                    writer.write('\n');
+                    if (first) {
+                        writer.flush();
+                        first = false;
+                    }
+                }
+                writer.flush();
+            } catch (RuntimeException e) {
+                // Headers are already committed; abort the response so the client sees a truncated stream
+                System.err.println("NDJSON stream aborted: " + e.getMessage());
+                throw e;
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.diyawanna.sup.controller;
+
+import com.diyawanna.sup.service.ExportService;
+import com.diyawanna.sup.service.ExportService.ExportPlan;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export controller for full dataset extracts
+ *
+ * This controller provides:
+ * - Streaming CSV and NDJSON exports of users, faculties and carts
+ * - Field selection and server-side filtering
+ * - Optional gzip compression of the exported file
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * Export a dataset
+     * GET /api/export/{users|faculties|carts}?format={csv|ndjson}&fields={a,b}&gzip={true|false}&{filter}={value}
+     *
+     * Every other request parameter is a filter, e.g. active=true or
+     * createdFrom=2024-01-01. Invalid requests are rejected before the
+     * response starts; afterwards errors can only truncate the stream.
+     */
+    @GetMapping("/{dataset}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> export(@PathVariable String dataset,
+            @RequestParam(defaultValue = ExportService.FORMAT_CSV) String format,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam Map<String, String> parameters) {
+        try {
+            Map<String, String> filters = new HashMap<>(parameters);
+            filters.remove("format");
+            filters.remove("fields");
+            filters.remove("gzip");
+            ExportPlan plan = exportService.plan(dataset, format, fields, filters);
+
+            String filename = dataset + "." + format + (gzip ? ".gz" : "");
+            StreamingResponseBody body = outputStream -> {
+                try {
+                    if (gzip) {
+                        GZIPOutputStream compressed = new GZIPOutputStream(outputStream, 64 * 1024);
+                        exportService.write(plan, compressed);
+                        compressed.finish();
+                    } else {
+                        exportService.write(plan, outputStream);
+                    }
+                } catch (RuntimeException e) {
+                    // Headers are already committed; abort the response so the client sees a truncated file
+                    System.err.println("Export of " + dataset + " aborted: " + e.getMessage());
+                    throw e;
+                }
+            };
+            return ResponseEntity.ok()
+                    .contentType(gzip ? APPLICATION_GZIP
+                            : ExportService.FORMAT_CSV.equals(format) ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(filename).build().toString())
+                    .body(body);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to export " + dataset);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.diyawanna.sup.controller;
 
+import com.diyawanna.sup.dto.BulkImportResult;
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.service.BulkImportService;
 import com.diyawanna.sup.service.FacultyService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -28,11 +36,15 @@ public class FacultyController {
     @Autowired
     private FacultyService facultyService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
     @GetMapping
-    public ResponseEntity<?> getAllFaculties() {
+    public ResponseEntity<?> getAllFaculties(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Faculty> faculties = facultyService.getAllActiveFaculties();
-            return ResponseEntity.ok(faculties);
+            CursorPage<Faculty> page = facultyService.getActiveFacultiesPage(cursor, size);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve faculties");
@@ -67,11 +79,34 @@ public class FacultyController {
         }
     }
 
+    /**
+     * Import faculties in bulk
+     * POST /api/faculties/bulk with a JSON array, or NDJSON (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> importFaculties(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        try {
+            BulkImportResult result = bulkImportService.importFaculties(body, contentType);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to import faculties");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateFaculty(@PathVariable String id, @RequestBody Faculty faculty) {
         try {
             Faculty updatedFaculty = facultyService.updateFaculty(id, faculty);
             return ResponseEntity.ok(updatedFaculty);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Faculty was modified concurrently");
+            error.put("message", "Reload the faculty and apply the changes to its current version");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to update faculty");
@@ -96,10 +131,11 @@ public class FacultyController {
     }
 
     @GetMapping("/university/{universityId}")
-    public ResponseEntity<?> getFacultiesByUniversity(@PathVariable String universityId) {
+    public ResponseEntity<?> getFacultiesByUniversity(@PathVariable String universityId,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            List<Faculty> faculties = facultyService.getFacultiesByUniversity(universityId);
-            return ResponseEntity.ok(faculties);
+            CursorPage<Faculty> page = facultyService.getFacultiesByUniversityPage(universityId, cursor, size);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve faculties");
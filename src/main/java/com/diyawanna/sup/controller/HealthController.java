@@ -1,5 +1,9 @@
 package com.diyawanna.sup.controller;
 
+import com.diyawanna.sup.service.CacheWarmUpService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,9 +22,15 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class HealthController {
 
+    @Autowired
+    private CacheWarmUpService cacheWarmUpService;
+
     /**
      * Basic health check endpoint
      * GET /api/health
+     * 
+     * Answers 503 with status WARMING_UP while the startup cache warm-up runs,
+     * so the instance only enters load balancer rotation with hot caches.
      */
     @GetMapping("/health")
     public ResponseEntity<?> health() {
@@ -32,6 +42,10 @@ public class HealthController {
         response.put("timestamp", LocalDateTime.now());
         long end = System.currentTimeMillis();
         System.out.println("Health check executed in " + (end - start) + " ms");
+        if (cacheWarmUpService.isStartupWarmUpInProgress()) {
+            response.put("status", "WARMING_UP");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
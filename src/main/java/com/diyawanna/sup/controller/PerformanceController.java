@@ -50,18 +50,21 @@ public class PerformanceController {
     }
 
     /**
-     * Get cache hit ratio for specific cache
-     * GET /api/performance/cache/{cacheName}/hit-ratio
+     * Get cache hit ratio and statistics for specific cache
+     * GET /api/performance/cache/{cacheName}/hit-ratio?windowMinutes=5
      */
     @GetMapping("/cache/{cacheName}/hit-ratio")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getCacheHitRatio(@PathVariable String cacheName) {
+    public ResponseEntity<?> getCacheHitRatio(@PathVariable String cacheName,
+            @RequestParam(defaultValue = "5") int windowMinutes) {
         try {
             double hitRatio = performanceService.getCacheHitRatio(cacheName);
             Map<String, Object> response = new HashMap<>();
             response.put("cacheName", cacheName);
             response.put("hitRatio", hitRatio);
             response.put("hitRatioPercent", hitRatio * 100);
+            response.put("statistics", performanceService.getCacheStatistics(cacheName));
+            response.put("window", performanceService.getCacheWindowStatistics(cacheName, windowMinutes));
             response.put("timestamp", LocalDateTime.now());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -123,8 +126,8 @@ public class PerformanceController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> warmUpCaches() {
         try {
-            performanceService.warmUpCaches();
             Map<String, Object> response = new HashMap<>();
+            response.put("progress", performanceService.warmUpCaches());
             response.put("message", "Cache warm-up initiated");
             response.put("timestamp", LocalDateTime.now());
             return ResponseEntity.ok(response);
@@ -136,6 +139,26 @@ public class PerformanceController {
         }
     }
 
+    /**
+     * Get progress of the current or last cache warm-up
+     * GET /api/performance/cache/warmup
+     */
+    @GetMapping("/cache/warmup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCacheWarmUpProgress() {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("progress", performanceService.getCacheWarmUpProgress());
+            response.put("timestamp", LocalDateTime.now());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get cache warm-up progress");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     /**
      * Get system health status
      * GET /api/performance/health
@@ -1,9 +1,12 @@
 package com.diyawanna.sup.controller;
 
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.Query;
 import com.diyawanna.sup.service.QueryService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,10 +32,11 @@ public class QueryController {
     private QueryService queryService;
 
     @GetMapping
-    public ResponseEntity<?> getAllQueries() {
+    public ResponseEntity<?> getAllQueries(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Query> queries = queryService.getAllActiveQueries();
-            return ResponseEntity.ok(queries);
+            CursorPage<Query> page = queryService.getActiveQueriesPage(cursor, size);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve queries");
@@ -85,6 +89,11 @@ public class QueryController {
         try {
             Query updatedQuery = queryService.updateQuery(id, query);
             return ResponseEntity.ok(updatedQuery);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Query was modified concurrently");
+            error.put("message", "Reload the query and apply the changes to its current version");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to update query");
@@ -1,9 +1,12 @@
 package com.diyawanna.sup.controller;
 
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.University;
 import com.diyawanna.sup.service.UniversityService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,14 +38,15 @@ public class UniversityController {
     private UniversityService universityService;
 
     /**
-     * Get all active universities
-     * GET /api/universities
+     * Get active universities, one keyset page at a time
+     * GET /api/universities?cursor={nextCursor}&size={n}
      */
     @GetMapping
-    public ResponseEntity<?> getAllUniversities() {
+    public ResponseEntity<?> getAllUniversities(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<University> universities = universityService.getAllActiveUniversities();
-            return ResponseEntity.ok(universities);
+            CursorPage<University> page = universityService.getActiveUniversitiesPage(cursor, size);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve universities");
@@ -111,6 +115,11 @@ public class UniversityController {
         try {
             University updatedUniversity = universityService.updateUniversity(id, university);
             return ResponseEntity.ok(updatedUniversity);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "University was modified concurrently");
+            error.put("message", "Reload the university and apply the changes to its current version");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to update university");
@@ -1,15 +1,24 @@
 package com.diyawanna.sup.controller;
 
+import com.diyawanna.sup.cache.UserAccessLog;
+import com.diyawanna.sup.dto.BulkImportResult;
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.User;
+import com.diyawanna.sup.service.BulkImportService;
 import com.diyawanna.sup.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -35,17 +44,24 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private UserAccessLog userAccessLog;
+
     /**
-     * Get all active users
-     * GET /api/users
+     * Get active users, one keyset page at a time
+     * GET /api/users?cursor={nextCursor}&size={n}
      */
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<User> users = userService.getAllActiveUsers();
+            CursorPage<User> page = userService.getActiveUsersPage(cursor, size);
             // Remove passwords from response
-            users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
+            page.getItems().forEach(user -> user.setPassword(null));
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve users");
@@ -62,6 +78,7 @@ public class UserController {
     public ResponseEntity<?> getUserById(@PathVariable String id) {
         try {
             User user = userService.getUserById(id);
+            userAccessLog.record(user.getId());
             user.setPassword(null); // Remove password from response
             return ResponseEntity.ok(user);
         } catch (Exception e) {
@@ -80,6 +97,7 @@ public class UserController {
     public ResponseEntity<?> getUserByUsername(@PathVariable String username) {
         try {
             User user = userService.getUserByUsername(username);
+            userAccessLog.record(user.getId());
             user.setPassword(null); // Remove password from response
             return ResponseEntity.ok(user);
         } catch (Exception e) {
@@ -108,6 +126,25 @@ public class UserController {
         }
     }
 
+    /**
+     * Import users in bulk
+     * POST /api/users/bulk with a JSON array, or NDJSON (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        try {
+            BulkImportResult result = bulkImportService.importUsers(body, contentType);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to import users");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     /**
      * Update user
      * PUT /api/users/{id}
@@ -118,6 +155,11 @@ public class UserController {
             User updatedUser = userService.updateUser(id, user);
             updatedUser.setPassword(null); // Remove password from response
             return ResponseEntity.ok(updatedUser);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "User was modified concurrently");
+            error.put("message", "Reload the user and apply the changes to its current version");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to update user");
@@ -184,15 +226,16 @@ public class UserController {
     }
 
     /**
-     * Get users by university
-     * GET /api/users/university/{university}
+     * Get active users of a university, one keyset page at a time
+     * GET /api/users/university/{university}?cursor={nextCursor}&size={n}
      */
     @GetMapping("/university/{university}")
-    public ResponseEntity<?> getUsersByUniversity(@PathVariable String university) {
+    public ResponseEntity<?> getUsersByUniversity(@PathVariable String university,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
         try {
-            List<User> users = userService.getUsersByUniversity(university);
-            users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
+            CursorPage<User> page = userService.getUsersByUniversityPage(university, cursor, size);
+            page.getItems().forEach(user -> user.setPassword(null));
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to retrieve users");
@@ -0,0 +1,54 @@
+package com.diyawanna.sup.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+/**
+ * Request DTO for executing several dynamic queries in one call
+ * 
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class BatchQueryRequest {
+
+    @NotEmpty(message = "At least one query is required")
+    @Valid
+    private List<QueryExecutionRequest> queries;
+
+    @Positive(message = "Timeout must be positive")
+    private Long timeoutMs;
+
+    public BatchQueryRequest() {}
+
+    public BatchQueryRequest(List<QueryExecutionRequest> queries, Long timeoutMs) {
+        this.queries = queries;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public List<QueryExecutionRequest> getQueries() {
+        return queries;
+    }
+
+    public void setQueries(List<QueryExecutionRequest> queries) {
+        this.queries = queries;
+    }
+
+    public Long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(Long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchQueryRequest{" +
+                "queries=" + queries +
+                ", timeoutMs=" + timeoutMs +
+                '}';
+    }
+}
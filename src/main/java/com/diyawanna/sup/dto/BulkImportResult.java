@@ -0,0 +1,161 @@
+package com.diyawanna.sup.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO summarizing a bulk import
+ *
+ * Rows are numbered from 1 in input order. Every row that was not inserted
+ * is counted in failed; the errors list describes at most the configured
+ * number of them and errorsTruncated tells whether some were left out.
+ * 
+ * When a chunk cannot be written (e.g. the database is unreachable) the
+ * import stops: aborted is set, abortReason says why, the rows of that
+ * chunk count as failed and rows after it are not read. Every row counted
+ * in inserted is committed.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public class BulkImportResult {
+
+    private int total;
+    private int inserted;
+    private int failed;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private boolean aborted;
+    private String abortReason;
+    private long durationMs;
+
+    public BulkImportResult() {}
+
+    public BulkImportResult(int total, int inserted, int failed, List<RowError> errors,
+                            boolean errorsTruncated, boolean aborted, String abortReason, long durationMs) {
+        this.total = total;
+        this.inserted = inserted;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+        this.aborted = aborted;
+        this.abortReason = abortReason;
+        this.durationMs = durationMs;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    public String getAbortReason() {
+        return abortReason;
+    }
+
+    public void setAbortReason(String abortReason) {
+        this.abortReason = abortReason;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkImportResult{" +
+                "total=" + total +
+                ", inserted=" + inserted +
+                ", failed=" + failed +
+                ", aborted=" + aborted +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+
+    /**
+     * Why one input row was not inserted
+     */
+    public static class RowError {
+
+        private int row;
+        private String field;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(int row, String field, String message) {
+            this.row = row;
+            this.field = field;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public void setRow(int row) {
+            this.row = row;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public void setField(String field) {
+            this.field = field;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
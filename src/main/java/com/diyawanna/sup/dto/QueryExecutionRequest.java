@@ -21,6 +21,7 @@ public class QueryExecutionRequest {
 
     private boolean cacheable = false;
     private Integer cacheTimeoutSeconds;
+    private boolean stream = false;
 
     public QueryExecutionRequest() {}
 
@@ -61,6 +62,14 @@ public class QueryExecutionRequest {
         this.cacheTimeoutSeconds = cacheTimeoutSeconds;
     }
 
+    public boolean isStream() {
+        return stream;
+    }
+
+    public void setStream(boolean stream) {
+        this.stream = stream;
+    }
+
     @Override
     public String toString() {
         return "QueryExecutionRequest{" +
@@ -68,6 +77,7 @@ public class QueryExecutionRequest {
                 ", parameters=" + parameters +
                 ", cacheable=" + cacheable +
                 ", cacheTimeoutSeconds=" + cacheTimeoutSeconds +
+                ", stream=" + stream +
                 '}';
     }
 }
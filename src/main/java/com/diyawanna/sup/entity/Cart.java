@@ -3,6 +3,7 @@ package com.diyawanna.sup.entity;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -19,7 +20,7 @@ import java.util.ArrayList;
  * - Basic information (name, description)
  * - Associated items
  * - User reference
- * - Audit fields (created/modified dates)
+ * - Audit fields (created/modified dates) and a version for optimistic locking
  * 
  * @author Diyawanna Team
  * @version 1.0.0
@@ -54,6 +55,9 @@ public class Cart {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     // Default constructor
     public Cart() {}
 
@@ -268,6 +272,14 @@ public class Cart {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Helper method to calculate total amount
     private void calculateTotalAmount() {
         if (this.items != null) {
@@ -293,6 +305,7 @@ public class Cart {
                 ", active=" + active +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -3,6 +3,7 @@ package com.diyawanna.sup.entity;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -19,7 +20,7 @@ import java.util.ArrayList;
  * - Basic information (name, description)
  * - Associated subjects
  * - University reference
- * - Audit fields (created/modified dates)
+ * - Audit fields (created/modified dates) and a version for optimistic locking
  * 
  * @author Diyawanna Team
  * @version 1.0.0
@@ -56,6 +57,9 @@ public class Faculty {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     // Default constructor
     public Faculty() {}
 
@@ -182,6 +186,14 @@ public class Faculty {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Faculty{" +
@@ -195,6 +207,7 @@ public class Faculty {
                 ", active=" + active +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -3,6 +3,7 @@ package com.diyawanna.sup.entity;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -17,9 +18,10 @@ import java.util.HashMap;
  * 
  * This entity stores dynamic queries including:
  * - Query information (name, description, SQL/MongoDB query)
+ * - Read options (projection, sort, skip/limit, hint, maxTimeMS)
  * - Query parameters and mappings
  * - Execution metadata
- * - Audit fields (created/modified dates)
+ * - Audit fields (created/modified dates) and a version for optimistic locking
  * 
  * @author Diyawanna Team
  * @version 1.0.0
@@ -43,6 +45,18 @@ public class Query {
     
     private String collection; // Target collection for the query
     
+    private String projection; // Fields to return, e.g. {'password': 0}
+    
+    private String sort; // Sort document, e.g. {'createdAt': -1}
+    
+    private Integer limit;
+    
+    private Integer skip;
+    
+    private String hint; // Index name or index key document
+    
+    private Long maxTimeMS; // Server-side execution time limit
+    
     private Map<String, Object> parameters = new HashMap<>();
     
     private Map<String, String> variableMappings = new HashMap<>();
@@ -69,6 +83,9 @@ public class Query {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     // Default constructor
     public Query() {}
 
@@ -135,6 +152,54 @@ public class Query {
         this.collection = collection;
     }
 
+    public String getProjection() {
+        return projection;
+    }
+
+    public void setProjection(String projection) {
+        this.projection = projection;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public Integer getSkip() {
+        return skip;
+    }
+
+    public void setSkip(Integer skip) {
+        this.skip = skip;
+    }
+
+    public String getHint() {
+        return hint;
+    }
+
+    public void setHint(String hint) {
+        this.hint = hint;
+    }
+
+    public Long getMaxTimeMS() {
+        return maxTimeMS;
+    }
+
+    public void setMaxTimeMS(Long maxTimeMS) {
+        this.maxTimeMS = maxTimeMS;
+    }
+
     public Map<String, Object> getParameters() {
         return parameters;
     }
@@ -257,6 +322,14 @@ public class Query {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Query{" +
@@ -271,6 +344,7 @@ public class Query {
                 ", createdBy='" + createdBy + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -3,6 +3,7 @@ package com.diyawanna.sup.entity;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -18,7 +19,7 @@ import java.util.ArrayList;
  * This entity stores university information including:
  * - Basic information (name, description)
  * - Associated faculties
- * - Audit fields (created/modified dates)
+ * - Audit fields (created/modified dates) and a version for optimistic locking
  * 
  * @author Diyawanna Team
  * @version 1.0.0
@@ -53,6 +54,9 @@ public class University {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     // Default constructor
     public University() {}
 
@@ -171,6 +175,14 @@ public class University {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "University{" +
@@ -183,6 +195,7 @@ public class University {
                 ", active=" + active +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
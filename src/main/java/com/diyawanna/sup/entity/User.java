@@ -3,6 +3,7 @@ package com.diyawanna.sup.entity;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -20,7 +21,7 @@ import java.time.LocalDateTime;
  * - Authentication credentials (username, password)
  * - Personal information (name, age)
  * - Educational/Professional details (university, school, work)
- * - Audit fields (created/modified dates)
+ * - Audit fields (created/modified dates) and a version for optimistic locking
  * 
  * @author Diyawanna Team
  * @version 1.0.0
@@ -68,6 +69,9 @@ public class User {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     // Default constructor
     public User() {}
 
@@ -199,6 +203,14 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "User{" +
@@ -213,6 +225,7 @@ public class User {
                 ", active=" + active +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,284 @@
+package com.diyawanna.sup.query;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts request parameter values into native BSON values
+ *
+ * Supported declared types (case-insensitive):
+ * - String
+ * - Integer / Int / Int32, Long / Int64, Double / Number, Decimal / Decimal128 / BigDecimal
+ * - Boolean
+ * - ObjectId
+ * - Date / DateTime / Instant (ISO-8601 text or epoch milliseconds)
+ * - Array&lt;T&gt;, List&lt;T&gt; or T[] for arrays, e.g. values for $in
+ * - Object / Document for embedded documents
+ *
+ * Parameters without a declared type keep the native type they were sent
+ * with. A collection bound to a scalar type is converted element by element.
+ *
+ * A parameter value is always data, never query syntax: JSON objects are
+ * only accepted for slots declared as Object or Document, and no key of
+ * such a value may start with '$'. Otherwise a client could send e.g.
+ * {"$ne": null} and turn an equality match into an operator.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class ParameterBinder {
+
+    private ParameterBinder() {}
+
+    /**
+     * Convert a parameter value to the BSON representation of its declared type
+     */
+    public static Object convert(String name, Object value, String type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            String elementType = elementType(type);
+            if (elementType != null) {
+                return convertAll(name, value, elementType);
+            }
+            if (value instanceof Collection || value.getClass().isArray()) {
+                return convertAll(name, value, type);
+            }
+            return convertScalar(value, type);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid value for parameter '" + name + "' (expected "
+                    + (type != null ? type : "BSON value") + "): " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Object> convertAll(String name, Object value, String elementType) {
+        List<Object> converted = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                converted.add(convert(name, element, elementType));
+            }
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                converted.add(convert(name, Array.get(value, i), elementType));
+            }
+        } else {
+            converted.add(convert(name, value, elementType));
+        }
+        return converted;
+    }
+
+    private static String elementType(String type) {
+        if (type == null) {
+            return null;
+        }
+        String trimmed = type.trim();
+        if (trimmed.endsWith("[]")) {
+            return trimmed.substring(0, trimmed.length() - 2);
+        }
+        int open = trimmed.indexOf('<');
+        if (open > 0 && trimmed.endsWith(">")) {
+            String container = trimmed.substring(0, open).toLowerCase(Locale.ROOT);
+            if (container.equals("array") || container.equals("list")) {
+                return trimmed.substring(open + 1, trimmed.length() - 1);
+            }
+        }
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        if (lower.equals("array") || lower.equals("list")) {
+            return "";
+        }
+        return null;
+    }
+
+    private static Object convertScalar(Object value, String type) {
+        String normalized = type != null ? type.trim().toLowerCase(Locale.ROOT) : "";
+        switch (normalized) {
+            case "":
+                return toNative(value);
+            case "string":
+                return value.toString();
+            case "integer":
+            case "int":
+            case "int32":
+                return toInteger(value);
+            case "long":
+            case "int64":
+                return toLong(value);
+            case "double":
+            case "number":
+                return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(value.toString().trim());
+            case "decimal":
+            case "decimal128":
+            case "bigdecimal":
+                return new Decimal128(toBigDecimal(value));
+            case "boolean":
+                return toBoolean(value);
+            case "objectid":
+                return value instanceof ObjectId ? value : new ObjectId(value.toString().trim());
+            case "date":
+            case "datetime":
+            case "instant":
+                return toDate(value);
+            case "object":
+            case "document":
+                if (!(value instanceof Map)) {
+                    throw new IllegalArgumentException("not an object: " + value);
+                }
+                return toDocument((Map<?, ?>) value);
+            default:
+                throw new IllegalArgumentException("Unsupported parameter type: " + type);
+        }
+    }
+
+    /**
+     * Map an untyped value (as produced by the JSON request body) onto its BSON equivalent
+     */
+    private static Object toNative(Object value) {
+        if (value instanceof BigDecimal) {
+            return new Decimal128((BigDecimal) value);
+        }
+        if (value instanceof BigInteger) {
+            BigInteger big = (BigInteger) value;
+            return big.bitLength() < 64 ? (Object) big.longValue() : new Decimal128(new BigDecimal(big));
+        }
+        if (value instanceof Map) {
+            throw new IllegalArgumentException("objects are only accepted for parameters declared as Object");
+        }
+        if (value instanceof Instant) {
+            return Date.from((Instant) value);
+        }
+        if (value instanceof LocalDateTime || value instanceof LocalDate) {
+            return toDate(value);
+        }
+        return value;
+    }
+
+    /**
+     * Copy an object value into a document, rejecting operator keys at any depth
+     */
+    private static Document toDocument(Map<?, ?> value) {
+        Document document = new Document();
+        for (Map.Entry<?, ?> entry : value.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            if (key.startsWith("$")) {
+                throw new IllegalArgumentException("operator keys are not allowed: " + key);
+            }
+            document.put(key, toEmbedded(entry.getValue()));
+        }
+        return document;
+    }
+
+    private static Object toEmbedded(Object value) {
+        if (value instanceof Map) {
+            return toDocument((Map<?, ?>) value);
+        }
+        if (value instanceof Collection) {
+            List<Object> values = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                values.add(toEmbedded(element));
+            }
+            return values;
+        }
+        return value != null ? toNative(value) : null;
+    }
+
+    private static Integer toInteger(Object value) {
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        if (value instanceof Number) {
+            return Math.toIntExact(toLong(value));
+        }
+        return Integer.valueOf(value.toString().trim());
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Number) {
+            return toBigDecimal(value).longValueExact();
+        }
+        return Long.valueOf(value.toString().trim());
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Decimal128) {
+            return ((Decimal128) value).bigDecimalValue();
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    private static Boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        String text = value.toString().trim();
+        if (text.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (text.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("not a boolean: " + text);
+    }
+
+    private static Date toDate(Object value) {
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+        if (value instanceof Number) {
+            return new Date(((Number) value).longValue());
+        }
+        if (value instanceof Instant) {
+            return Date.from((Instant) value);
+        }
+        if (value instanceof LocalDateTime) {
+            return Date.from(((LocalDateTime) value).toInstant(ZoneOffset.UTC));
+        }
+        if (value instanceof LocalDate) {
+            return Date.from(((LocalDate) value).atStartOfDay().toInstant(ZoneOffset.UTC));
+        }
+
+        String text = value.toString().trim();
+        try {
+            return Date.from(OffsetDateTime.parse(text).toInstant());
+        } catch (DateTimeParseException ignored) {
+            // fall through to zone-less formats
+        }
+        try {
+            return Date.from(LocalDateTime.parse(text).toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException ignored) {
+            // fall through to plain dates
+        }
+        try {
+            return Date.from(LocalDate.parse(text).atStartOfDay().toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("not an ISO-8601 date: " + text);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.diyawanna.sup.query;
+
+import java.util.Map;
+
+/**
+ * A typed placeholder inside a compiled query template
+ *
+ * Each occurrence of ${name} (or ${name:Type}) in a query becomes one slot.
+ * The declared type comes from the inline annotation, the ObjectId('...')
+ * wrapper, or the variable mappings, in that order; values are converted to
+ * native BSON types by {@link ParameterBinder}.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class ParameterSlot {
+
+    private final String name;
+    private final String type;
+
+    public ParameterSlot(String name, String type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Resolve this slot's value from the supplied parameters
+     */
+    public Object bind(Map<String, Object> parameters) {
+        Object value = parameters != null ? parameters.get(name) : null;
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required parameter: " + name);
+        }
+        return ParameterBinder.convert(name, value, type);
+    }
+
+    @Override
+    public String toString() {
+        return "ParameterSlot{" +
+                "name='" + name + '\'' +
+                ", type='" + type + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,176 @@
+package com.diyawanna.sup.query;
+
+import org.bson.Document;
+
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+
+import java.time.Duration;
+
+/**
+ * Immutable read options of a compiled query: projection, sort, skip/limit,
+ * index hint and server-side time limit
+ *
+ * Projection and sort apply to FIND queries, skip/limit to FIND and COUNT,
+ * hint and maxTimeMS to every query type.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class QueryOptions {
+
+    public static final QueryOptions NONE = new QueryOptions(null, null, null, null, null, null, null);
+
+    private final Document projection;
+    private final Document sort;
+    private final Integer limit;
+    private final Integer skip;
+    private final String hintIndexName;
+    private final Document hintIndexKeys;
+    private final Long maxTimeMS;
+
+    private QueryOptions(Document projection, Document sort, Integer limit, Integer skip,
+                         String hintIndexName, Document hintIndexKeys, Long maxTimeMS) {
+        this.projection = projection;
+        this.sort = sort;
+        this.limit = limit;
+        this.skip = skip;
+        this.hintIndexName = hintIndexName;
+        this.hintIndexKeys = hintIndexKeys;
+        this.maxTimeMS = maxTimeMS;
+    }
+
+    /**
+     * Parse options from their configured (relaxed JSON) text form
+     *
+     * @param hint index name, or an index key document such as {'active': 1, 'createdAt': -1}
+     */
+    public static QueryOptions of(String projection, String sort, Integer limit, Integer skip,
+                                  String hint, Long maxTimeMS) {
+        if (limit != null && limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        if (skip != null && skip < 0) {
+            throw new IllegalArgumentException("skip must not be negative: " + skip);
+        }
+        if (maxTimeMS != null && maxTimeMS <= 0) {
+            throw new IllegalArgumentException("maxTimeMS must be positive: " + maxTimeMS);
+        }
+
+        String hintText = hint != null && !hint.isBlank() ? hint.trim() : null;
+        boolean hintIsKeys = hintText != null && hintText.startsWith("{");
+
+        if (isBlank(projection) && isBlank(sort) && limit == null && skip == null
+                && hintText == null && maxTimeMS == null) {
+            return NONE;
+        }
+        return new QueryOptions(
+                parseDocument("projection", projection),
+                parseDocument("sort", sort),
+                limit,
+                skip,
+                hintIsKeys ? null : hintText,
+                hintIsKeys ? parseDocument("hint", hintText) : null,
+                maxTimeMS);
+    }
+
+    /**
+     * These options with the server-side time limit lowered to at most the given milliseconds
+     *
+     * Used to make MongoDB end a query whose caller stops waiting, e.g. at a batch deadline.
+     */
+    public QueryOptions withMaxTimeAtMost(long limitMs) {
+        long bounded = Math.max(1, maxTimeMS != null ? Math.min(maxTimeMS, limitMs) : limitMs);
+        return new QueryOptions(projection, sort, limit, skip, hintIndexName, hintIndexKeys, bounded);
+    }
+
+    /**
+     * Build a find/count query for the bound filter with these options applied
+     */
+    public BasicQuery toQuery(Document filter) {
+        BasicQuery query = projection != null
+                ? new BasicQuery(filter, new Document(projection))
+                : new BasicQuery(filter);
+        if (sort != null) {
+            query.setSortObject(new Document(sort));
+        }
+        if (skip != null) {
+            query.skip(skip);
+        }
+        if (limit != null) {
+            query.limit(limit);
+        }
+        if (hintIndexName != null) {
+            query.withHint(hintIndexName);
+        } else if (hintIndexKeys != null) {
+            query.withHint(new Document(hintIndexKeys));
+        }
+        if (maxTimeMS != null) {
+            query.maxTime(Duration.ofMillis(maxTimeMS));
+        }
+        return query;
+    }
+
+    /**
+     * Build aggregation options carrying the hint and time limit
+     */
+    public AggregationOptions toAggregationOptions() {
+        AggregationOptions.Builder builder = AggregationOptions.builder();
+        if (hintIndexName != null) {
+            builder.hint(hintIndexName);
+        } else if (hintIndexKeys != null) {
+            builder.hint(new Document(hintIndexKeys));
+        }
+        if (maxTimeMS != null) {
+            builder.maxTime(Duration.ofMillis(maxTimeMS));
+        }
+        return builder.build();
+    }
+
+    public Document getProjection() {
+        return projection != null ? new Document(projection) : null;
+    }
+
+    public Document getSort() {
+        return sort != null ? new Document(sort) : null;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public Integer getSkip() {
+        return skip;
+    }
+
+    public Long getMaxTimeMS() {
+        return maxTimeMS;
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    private static Document parseDocument(String option, String text) {
+        if (isBlank(text)) {
+            return null;
+        }
+        try {
+            return Document.parse(text);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + option + " document: " + text, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "QueryOptions{" +
+                "projection=" + projection +
+                ", sort=" + sort +
+                ", limit=" + limit +
+                ", skip=" + skip +
+                ", hint=" + (hintIndexName != null ? hintIndexName : hintIndexKeys) +
+                ", maxTimeMS=" + maxTimeMS +
+                '}';
+    }
+}
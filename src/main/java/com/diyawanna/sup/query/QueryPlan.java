@@ -0,0 +1,102 @@
+package com.diyawanna.sup.query;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable execution plan for one configured or stored query
+ *
+ * A plan is compiled once and shared by every request that runs the query;
+ * executing it only binds parameter values into the template's slots.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class QueryPlan {
+
+    private final String name;
+    private final String collection;
+    private final QueryType type;
+    private final QueryTemplate template;
+    private final QueryOptions options;
+
+    public QueryPlan(String name, String collection, QueryType type, QueryTemplate template) {
+        this(name, collection, type, template, QueryOptions.NONE);
+    }
+
+    public QueryPlan(String name, String collection, QueryType type, QueryTemplate template,
+                     QueryOptions options) {
+        this.name = name;
+        this.collection = collection;
+        this.type = type;
+        this.template = template;
+        this.options = options != null ? options : QueryOptions.NONE;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public QueryType getType() {
+        return type;
+    }
+
+    public QueryTemplate getTemplate() {
+        return template;
+    }
+
+    public QueryOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Names of all parameters referenced by the query
+     */
+    public Set<String> getParameterNames() {
+        return template.getParameterNames();
+    }
+
+    /**
+     * Bind parameters into the filter document (FIND and COUNT plans)
+     */
+    public Document bindFilter(Map<String, Object> parameters) {
+        if (type == QueryType.AGGREGATE) {
+            throw new IllegalStateException("Aggregation plan has no filter: " + name);
+        }
+        return (Document) template.bind(parameters);
+    }
+
+    /**
+     * Bind parameters into the pipeline stages (AGGREGATE plans)
+     */
+    public List<Document> bindPipeline(Map<String, Object> parameters) {
+        if (type != QueryType.AGGREGATE) {
+            throw new IllegalStateException("Plan is not an aggregation: " + name);
+        }
+        List<?> stages = (List<?>) template.bind(parameters);
+        List<Document> pipeline = new ArrayList<>(stages.size());
+        for (Object stage : stages) {
+            pipeline.add((Document) stage);
+        }
+        return pipeline;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlan{" +
+                "name='" + name + '\'' +
+                ", collection='" + collection + '\'' +
+                ", type=" + type +
+                ", parameters=" + getParameterNames() +
+                ", options=" + options +
+                '}';
+    }
+}
@@ -0,0 +1,183 @@
+package com.diyawanna.sup.query;
+
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles query text into immutable {@link QueryPlan}s
+ *
+ * Query text uses relaxed (shell-style) JSON with ${name} placeholders. The
+ * compiler quotes bare placeholders, rewrites ObjectId('${id}') into a typed
+ * slot, parses the result once with the BSON parser and turns every
+ * placeholder into a {@link ParameterSlot}.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class QueryPlanCompiler {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}:]+)(?::([^}]+))?\\}");
+
+    private static final Pattern OBJECT_ID_PLACEHOLDER =
+            Pattern.compile("ObjectId\\(\\s*(['\"])\\$\\{([^}:]+)\\}\\1\\s*\\)");
+
+    private QueryPlanCompiler() {}
+
+    /**
+     * Compile query text into an execution plan
+     *
+     * @param name          query name used in error messages
+     * @param queryText     filter document (FIND/COUNT) or pipeline array (AGGREGATE)
+     * @param collection    target collection
+     * @param type          query type name
+     * @param variableTypes declared parameter types by name
+     */
+    public static QueryPlan compile(String name, String queryText, String collection, String type,
+                                    Map<String, String> variableTypes) {
+        return compile(name, queryText, collection, type, variableTypes, QueryOptions.NONE);
+    }
+
+    /**
+     * Compile query text and its read options into an execution plan
+     */
+    public static QueryPlan compile(String name, String queryText, String collection, String type,
+                                    Map<String, String> variableTypes, QueryOptions options) {
+        if (queryText == null || queryText.isBlank()) {
+            throw new IllegalArgumentException("Query content is required: " + name);
+        }
+        if (collection == null || collection.isBlank()) {
+            throw new IllegalArgumentException("Query collection is required: " + name);
+        }
+
+        QueryType queryType = QueryType.fromName(type);
+        String normalized = normalize(queryText);
+
+        Object parsed;
+        try {
+            if (queryType == QueryType.AGGREGATE) {
+                parsed = Document.parse("{\"pipeline\": " + normalized + "}").get("pipeline");
+                if (!(parsed instanceof List)) {
+                    throw new IllegalArgumentException("Aggregation query must be a pipeline array: " + name);
+                }
+            } else {
+                parsed = Document.parse(normalized);
+            }
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Failed to parse query " + name + ": " + e.getMessage(), e);
+        }
+
+        List<ParameterSlot> slots = new ArrayList<>();
+        QueryTemplate.Node root = compileValue(parsed, variableTypes, slots);
+        return new QueryPlan(name, collection, queryType, new QueryTemplate(root, slots), options);
+    }
+
+    /**
+     * Quote placeholders that appear outside string literals and fold
+     * ObjectId('${id}') into an ObjectId-typed placeholder
+     */
+    static String normalize(String queryText) {
+        StringBuilder sb = new StringBuilder(queryText.length() + 16);
+        char quote = 0;
+        int i = 0;
+        while (i < queryText.length()) {
+            char c = queryText.charAt(i);
+            if (quote != 0) {
+                sb.append(c);
+                if (c == '\\' && i + 1 < queryText.length()) {
+                    sb.append(queryText.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                i++;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+                sb.append(c);
+                i++;
+            } else if (c == '$' && i + 1 < queryText.length() && queryText.charAt(i + 1) == '{') {
+                int end = queryText.indexOf('}', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated parameter placeholder in query: " + queryText);
+                }
+                sb.append('\'').append(queryText, i, end + 1).append('\'');
+                i = end + 1;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+
+        return OBJECT_ID_PLACEHOLDER.matcher(sb).replaceAll("'\\${$2:ObjectId}'");
+    }
+
+    private static QueryTemplate.Node compileValue(Object value, Map<String, String> variableTypes,
+                                                   List<ParameterSlot> slots) {
+        if (value instanceof Document) {
+            Document document = (Document) value;
+            List<String> keys = new ArrayList<>(document.size());
+            List<QueryTemplate.Node> values = new ArrayList<>(document.size());
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                keys.add(entry.getKey());
+                values.add(compileValue(entry.getValue(), variableTypes, slots));
+            }
+            return new QueryTemplate.DocumentNode(keys, values);
+        }
+        if (value instanceof List) {
+            List<QueryTemplate.Node> elements = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                elements.add(compileValue(element, variableTypes, slots));
+            }
+            return new QueryTemplate.ListNode(elements);
+        }
+        if (value instanceof String) {
+            return compileString((String) value, variableTypes, slots);
+        }
+        if (value instanceof BsonRegularExpression) {
+            BsonRegularExpression regex = (BsonRegularExpression) value;
+            QueryTemplate.Node pattern = compileString(regex.getPattern(), variableTypes, slots);
+            if (!(pattern instanceof QueryTemplate.ConstantNode)) {
+                return new QueryTemplate.RegexNode(pattern, regex.getOptions());
+            }
+        }
+        return new QueryTemplate.ConstantNode(value);
+    }
+
+    private static QueryTemplate.Node compileString(String value, Map<String, String> variableTypes,
+                                                    List<ParameterSlot> slots) {
+        Matcher matcher = PLACEHOLDER.matcher(value);
+        List<Object> parts = new ArrayList<>();
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                parts.add(value.substring(last, matcher.start()));
+            }
+            String paramName = matcher.group(1).trim();
+            String paramType = matcher.group(2) != null
+                    ? matcher.group(2).trim()
+                    : (variableTypes != null ? variableTypes.get(paramName) : null);
+            ParameterSlot slot = new ParameterSlot(paramName, paramType);
+            slots.add(slot);
+            parts.add(slot);
+            last = matcher.end();
+        }
+
+        if (parts.isEmpty()) {
+            return new QueryTemplate.ConstantNode(value);
+        }
+        if (last < value.length()) {
+            parts.add(value.substring(last));
+        }
+        if (parts.size() == 1) {
+            return new QueryTemplate.SlotNode((ParameterSlot) parts.get(0));
+        }
+        return new QueryTemplate.InterpolatedNode(parts);
+    }
+}
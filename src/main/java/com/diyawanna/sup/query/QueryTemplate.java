@@ -0,0 +1,185 @@
+package com.diyawanna.sup.query;
+
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, pre-parsed BSON template with typed parameter slots
+ *
+ * Templates are produced once by {@link QueryPlanCompiler}. Binding walks the
+ * pre-built node tree and writes parameter values straight into fresh
+ * Documents, so no query text is substituted or parsed at execution time.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public final class QueryTemplate {
+
+    private final Node root;
+    private final List<ParameterSlot> slots;
+    private final Set<String> parameterNames;
+
+    QueryTemplate(Node root, List<ParameterSlot> slots) {
+        this.root = root;
+        this.slots = Collections.unmodifiableList(new ArrayList<>(slots));
+
+        Set<String> names = new LinkedHashSet<>();
+        for (ParameterSlot slot : slots) {
+            names.add(slot.getName());
+        }
+        this.parameterNames = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Bind parameters into a new BSON value (Document or List of Documents)
+     */
+    public Object bind(Map<String, Object> parameters) {
+        return root.bind(parameters);
+    }
+
+    public List<ParameterSlot> getSlots() {
+        return slots;
+    }
+
+    public Set<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Node of the compiled template tree
+     */
+    interface Node {
+        Object bind(Map<String, Object> parameters);
+    }
+
+    /**
+     * Literal value that never changes between executions
+     */
+    static final class ConstantNode implements Node {
+        private final Object value;
+
+        ConstantNode(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object bind(Map<String, Object> parameters) {
+            return value;
+        }
+    }
+
+    /**
+     * Value taken entirely from one parameter
+     */
+    static final class SlotNode implements Node {
+        private final ParameterSlot slot;
+
+        SlotNode(ParameterSlot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public Object bind(Map<String, Object> parameters) {
+            return slot.bind(parameters);
+        }
+    }
+
+    /**
+     * String literal with one or more embedded parameters, e.g. '^${prefix}'
+     */
+    static final class InterpolatedNode implements Node {
+        private final Object[] parts;
+
+        InterpolatedNode(List<Object> parts) {
+            this.parts = parts.toArray();
+        }
+
+        @Override
+        public Object bind(Map<String, Object> parameters) {
+            StringBuilder sb = new StringBuilder();
+            for (Object part : parts) {
+                if (part instanceof ParameterSlot) {
+                    sb.append(((ParameterSlot) part).bind(parameters));
+                } else {
+                    sb.append(part);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Regular expression whose pattern contains parameters, e.g. {'$regex': '${location}'}
+     */
+    static final class RegexNode implements Node {
+        private final Node pattern;
+        private final String options;
+
+        RegexNode(Node pattern, String options) {
+            this.pattern = pattern;
+            this.options = options;
+        }
+
+        @Override
+        public Object bind(Map<String, Object> parameters) {
+            return new BsonRegularExpression(String.valueOf(pattern.bind(parameters)), options);
+        }
+    }
+
+    /**
+     * Document whose field values are themselves template nodes
+     */
+    static final class DocumentNode implements Node {
+        private final String[] keys;
+        private final Node[] values;
+
+        DocumentNode(List<String> keys, List<Node> values) {
+            this.keys = keys.toArray(new String[0]);
+            this.values = values.toArray(new Node[0]);
+        }
+
+        @Override
+        public Object bind(Map<String, Object> parameters) {
+            Document document = new Document();
+            for (int i = 0; i < keys.length; i++) {
+                document.put(keys[i], values[i].bind(parameters));
+            }
+            return document;
+        }
+    }
+
+    /**
+     * Array whose elements are template nodes
+     *
+     * A parameter that makes up a whole element and binds to a list is spliced
+     * into the array, so ['${subjects}'] accepts either one value or many.
+     */
+    static final class ListNode implements Node {
+        private final Node[] elements;
+
+        ListNode(List<Node> elements) {
+            this.elements = elements.toArray(new Node[0]);
+        }
+
+        @Override
+        public Object bind(Map<String, Object> parameters) {
+            List<Object> list = new ArrayList<>(elements.length);
+            for (Node element : elements) {
+                Object value = element.bind(parameters);
+                if (element instanceof SlotNode && value instanceof List) {
+                    list.addAll((List<?>) value);
+                } else {
+                    list.add(value);
+                }
+            }
+            return list;
+        }
+    }
+}
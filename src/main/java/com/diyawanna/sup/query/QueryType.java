@@ -0,0 +1,28 @@
+package com.diyawanna.sup.query;
+
+/**
+ * Operation types supported by the dynamic query engine
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+public enum QueryType {
+
+    FIND,
+    AGGREGATE,
+    COUNT;
+
+    /**
+     * Resolve a query type from its configured name (case-insensitive)
+     */
+    public static QueryType fromName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Query type is required");
+        }
+        try {
+            return QueryType.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported query type: " + name);
+        }
+    }
+}
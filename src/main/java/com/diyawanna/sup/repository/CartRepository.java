@@ -1,6 +1,7 @@
 package com.diyawanna.sup.repository;
 
 import com.diyawanna.sup.entity.Cart;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -29,6 +30,16 @@ public interface CartRepository extends MongoRepository<Cart, String> {
      */
     List<Cart> findByUserIdAndActiveTrue(String userId);
 
+    /**
+     * Find the first page of a user's active carts, ordered by the pageable's sort
+     */
+    List<Cart> findByUserIdAndActiveTrue(String userId, Pageable pageable);
+
+    /**
+     * Find the next page of a user's active carts after the given id (keyset pagination)
+     */
+    List<Cart> findByUserIdAndActiveTrueAndIdLessThan(String userId, String id, Pageable pageable);
+
     /**
      * Find carts by user ID and status
      */
@@ -44,11 +55,31 @@ public interface CartRepository extends MongoRepository<Cart, String> {
      */
     List<Cart> findByActiveTrue();
 
+    /**
+     * Find the first page of active carts, ordered by the pageable's sort
+     */
+    List<Cart> findByActiveTrue(Pageable pageable);
+
+    /**
+     * Find the next page of active carts after the given id (keyset pagination)
+     */
+    List<Cart> findByActiveTrueAndIdLessThan(String id, Pageable pageable);
+
     /**
      * Find carts by status
      */
     List<Cart> findByStatusAndActiveTrue(String status);
 
+    /**
+     * Find the first page of active carts with a status, ordered by the pageable's sort
+     */
+    List<Cart> findByStatusAndActiveTrue(String status, Pageable pageable);
+
+    /**
+     * Find the next page of active carts with a status after the given id (keyset pagination)
+     */
+    List<Cart> findByStatusAndActiveTrueAndIdLessThan(String status, String id, Pageable pageable);
+
     /**
      * Find carts by user name
      */
@@ -1,6 +1,7 @@
 package com.diyawanna.sup.repository;
 
 import com.diyawanna.sup.entity.Faculty;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -33,6 +34,16 @@ public interface FacultyRepository extends MongoRepository<Faculty, String> {
      */
     List<Faculty> findByUniversityIdAndActiveTrue(String universityId);
 
+    /**
+     * Find the first page of a university's active faculties, ordered by the pageable's sort
+     */
+    List<Faculty> findByUniversityIdAndActiveTrue(String universityId, Pageable pageable);
+
+    /**
+     * Find the next page of a university's active faculties after the given id (keyset pagination)
+     */
+    List<Faculty> findByUniversityIdAndActiveTrueAndIdLessThan(String universityId, String id, Pageable pageable);
+
     /**
      * Find faculties by university name
      */
@@ -43,6 +54,16 @@ public interface FacultyRepository extends MongoRepository<Faculty, String> {
      */
     List<Faculty> findByActiveTrue();
 
+    /**
+     * Find the first page of active faculties, ordered by the pageable's sort
+     */
+    List<Faculty> findByActiveTrue(Pageable pageable);
+
+    /**
+     * Find the next page of active faculties after the given id (keyset pagination)
+     */
+    List<Faculty> findByActiveTrueAndIdLessThan(String id, Pageable pageable);
+
     /**
      * Find faculties that have specific subject
      */
@@ -1,6 +1,7 @@
 package com.diyawanna.sup.repository;
 
 import com.diyawanna.sup.entity.Query;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -37,6 +38,16 @@ public interface QueryRepository extends MongoRepository<Query, String> {
      */
     List<Query> findByActiveTrue();
 
+    /**
+     * Find the first page of active queries, ordered by the pageable's sort
+     */
+    List<Query> findByActiveTrue(Pageable pageable);
+
+    /**
+     * Find the next page of active queries after the given id (keyset pagination)
+     */
+    List<Query> findByActiveTrueAndIdLessThan(String id, Pageable pageable);
+
     /**
      * Find queries by category
      */
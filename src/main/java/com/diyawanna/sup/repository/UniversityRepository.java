@@ -1,6 +1,7 @@
 package com.diyawanna.sup.repository;
 
 import com.diyawanna.sup.entity.University;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -37,6 +38,16 @@ public interface UniversityRepository extends MongoRepository<University, String
      */
     List<University> findByActiveTrue();
 
+    /**
+     * Find the first page of active universities, ordered by the pageable's sort
+     */
+    List<University> findByActiveTrue(Pageable pageable);
+
+    /**
+     * Find the next page of active universities after the given id (keyset pagination)
+     */
+    List<University> findByActiveTrueAndIdLessThan(String id, Pageable pageable);
+
     /**
      * Find universities by location
      */
@@ -1,6 +1,7 @@
 package com.diyawanna.sup.repository;
 
 import com.diyawanna.sup.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -47,11 +48,31 @@ public interface UserRepository extends MongoRepository<User, String> {
      */
     List<User> findByActiveTrue();
 
+    /**
+     * Find the first page of active users, ordered by the pageable's sort
+     */
+    List<User> findByActiveTrue(Pageable pageable);
+
+    /**
+     * Find the next page of active users after the given id (keyset pagination)
+     */
+    List<User> findByActiveTrueAndIdLessThan(String id, Pageable pageable);
+
     /**
      * Find users by university
      */
     List<User> findByUniversityAndActiveTrue(String university);
 
+    /**
+     * Find the first page of active users of a university, ordered by the pageable's sort
+     */
+    List<User> findByUniversityAndActiveTrue(String university, Pageable pageable);
+
+    /**
+     * Find the next page of active users of a university after the given id (keyset pagination)
+     */
+    List<User> findByUniversityAndActiveTrueAndIdLessThan(String university, String id, Pageable pageable);
+
     /**
      * Find users by age range
      */
@@ -1,5 +1,7 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.cache.CacheMaintenance;
+import com.diyawanna.sup.cache.UserAccessLog;
 import com.diyawanna.sup.entity.User;
 import com.diyawanna.sup.repository.UserRepository;
 import com.diyawanna.sup.util.JwtUtil;
@@ -51,6 +53,12 @@ public class AuthenticationService implements UserDetailsService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserAccessLog userAccessLog;
+
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
     /**
      * Authenticate user and generate JWT token
      */
@@ -75,6 +83,9 @@ public class AuthenticationService implements UserDetailsService {
                 throw new AuthenticationException("Invalid username or password");
             }
 
+            // Remember the user for the next cache warm-up
+            userAccessLog.record(user.getId());
+
             // Create UserDetails for JWT generation
             UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
                     .username(user.getUsername())
@@ -139,7 +150,9 @@ public class AuthenticationService implements UserDetailsService {
             user.setAddress(registerRequest.getAddress());
             user.setActive(true);
 
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            cacheMaintenance.afterCreate(savedUser);
+            return savedUser;
 
         } catch (UserAlreadyExistsException e) {
             throw e;
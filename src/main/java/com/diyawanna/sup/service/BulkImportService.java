@@ -0,0 +1,318 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.cache.CacheMaintenance;
+import com.diyawanna.sup.cache.CollectionWriteListener;
+import com.diyawanna.sup.dto.BulkImportResult;
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service for bulk imports of users, faculties and carts
+ *
+ * The request body is read row by row, either as a JSON array or as NDJSON
+ * (one document per line), and written in chunks of bulk-import.chunk-size
+ * rows. Each chunk is one unordered bulk insert, so a bad row does not stop
+ * the rest of its chunk. Rows are validated like single creates; uniqueness
+ * is left to the unique indexes, and duplicate key errors are reported per
+ * row with the field of the violated index. User passwords are hashed in
+ * parallel on the bulkImportExecutor before their chunk is written.
+ *
+ * A malformed NDJSON line fails only that row; a malformed JSON array ends
+ * the import at that row, since the rest of the array cannot be located.
+ * A chunk that fails as a whole (timeout, network or write concern error)
+ * aborts the import: its rows are reported as failed, no further rows are
+ * read, and the result still counts the rows committed by earlier chunks.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class BulkImportService {
+
+    private static final long INSERTED_VERSION = 0L;
+    private static final Pattern DUPLICATE_KEY_INDEX = Pattern.compile("index: (\\S+) dup key");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private CollectionWriteListener collectionWriteListener;
+
+    @Autowired
+    @Qualifier("bulkImportExecutor")
+    private ThreadPoolTaskExecutor importExecutor;
+
+    @Value("${bulk-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${bulk-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public BulkImportResult importUsers(InputStream body, String contentType) throws IOException {
+        return importRows(body, contentType, User.class, this::hashPasswords);
+    }
+
+    public BulkImportResult importFaculties(InputStream body, String contentType) throws IOException {
+        return importRows(body, contentType, Faculty.class, faculties -> {});
+    }
+
+    public BulkImportResult importCarts(InputStream body, String contentType) throws IOException {
+        return importRows(body, contentType, Cart.class, carts -> {});
+    }
+
+    private <T> BulkImportResult importRows(InputStream body, String contentType, Class<T> type,
+                                            Consumer<List<T>> beforeWrite) throws IOException {
+        Import<T> run = new Import<>(type, beforeWrite);
+        try {
+            if (contentType != null && contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE)) {
+                readNdjson(body, run);
+            } else {
+                readJson(body, run);
+            }
+            writeChunk(run);
+        } finally {
+            System.out.println("Bulk import of " + type.getSimpleName() + ": " + run.inserted + " of "
+                + run.total + " rows inserted in " + (System.currentTimeMillis() - run.startedMillis) + " ms");
+        }
+        return new BulkImportResult(run.total, run.inserted, run.failed, run.errors,
+            run.failed > run.errors.size(), run.abortReason != null, run.abortReason,
+            System.currentTimeMillis() - run.startedMillis);
+    }
+
+    private <T> void readNdjson(InputStream body, Import<T> run) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(run.type);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while (run.abortReason == null && (line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int rowNumber = ++run.total;
+            T row;
+            try {
+                row = reader.readValue(line);
+            } catch (JsonProcessingException e) {
+                run.reject(rowNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            accept(run, rowNumber, row);
+        }
+    }
+
+    private <T> void readJson(InputStream body, Import<T> run) throws IOException {
+        // A top-level array is unwrapped into its elements
+        try (MappingIterator<T> rows = objectMapper.readerFor(run.type).readValues(body)) {
+            while (run.abortReason == null) {
+                T row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        return;
+                    }
+                    row = rows.nextValue();
+                } catch (IOException e) {
+                    run.reject(++run.total, null, "Malformed JSON, import stopped: " + e.getMessage());
+                    return;
+                }
+                accept(run, ++run.total, row);
+            }
+        }
+    }
+
+    private <T> void accept(Import<T> run, int rowNumber, T row) {
+        Set<ConstraintViolation<T>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<T> violation = violations.iterator().next();
+            run.reject(rowNumber, violation.getPropertyPath().toString(), violation.getMessage());
+            return;
+        }
+        run.rows.add(row);
+        run.rowNumbers.add(rowNumber);
+        if (run.rows.size() >= chunkSize) {
+            writeChunk(run);
+        }
+    }
+
+    private <T> void writeChunk(Import<T> run) {
+        if (run.rows.isEmpty()) {
+            return;
+        }
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(run.type);
+        LocalDateTime now = LocalDateTime.now();
+        for (T row : run.rows) {
+            prepareForInsert(entity, row, now);
+        }
+        run.beforeWrite.accept(run.rows);
+
+        List<InsertOneModel<Document>> inserts = new ArrayList<>(run.rows.size());
+        for (T row : run.rows) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(row, document);
+            inserts.add(new InsertOneModel<>(document));
+        }
+
+        String collection = mongoTemplate.getCollectionName(run.type);
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            mongoTemplate.getCollection(collection).bulkWrite(inserts, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                failedIndexes.add(error.getIndex());
+                int rowNumber = run.rowNumbers.get(error.getIndex());
+                if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                    run.reject(rowNumber, duplicateKeyField(error.getMessage()), "Duplicate value");
+                } else {
+                    run.reject(rowNumber, null, error.getMessage());
+                }
+            }
+        } catch (MongoException e) {
+            abortChunk(run, collection, e);
+            return;
+        }
+
+        List<String> insertedIds = new ArrayList<>(run.rows.size());
+        for (int i = 0; i < run.rows.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                run.inserted++;
+                cacheMaintenance.afterCreate(run.rows.get(i));
+                insertedIds.add(cacheMaintenance.idOf(run.rows.get(i)));
+            }
+        }
+        // Recorded as this node's own writes, so it skips their change events; other nodes handle each
+        // insert event without an index lookup and evict the collection's query results once per event batch
+        collectionWriteListener.afterBulkInsert(collection, insertedIds, INSERTED_VERSION);
+        run.rows.clear();
+        run.rowNumbers.clear();
+    }
+
+    /**
+     * Fail every row of a chunk whose write failed as a whole and stop the import
+     *
+     * Some of its rows may have been written before the failure, so their
+     * cache keys are evicted as if all of them had been.
+     */
+    private <T> void abortChunk(Import<T> run, String collection, MongoException e) {
+        run.abortReason = "Write of rows " + run.rowNumbers.get(0) + " to "
+            + run.rowNumbers.get(run.rowNumbers.size() - 1) + " failed: " + e.getMessage();
+        System.err.println("Bulk import of " + run.type.getSimpleName() + " aborted. " + run.abortReason);
+        for (int i = 0; i < run.rows.size(); i++) {
+            run.reject(run.rowNumbers.get(i), null, "Not confirmed, import aborted: " + e.getMessage());
+            cacheMaintenance.afterCreate(run.rows.get(i));
+        }
+        collectionWriteListener.afterDirectWrite(collection, null, null);
+        run.rows.clear();
+        run.rowNumbers.clear();
+    }
+
+    /**
+     * Give a row the id and defaults a single create would; ids are assigned here so inserted rows are known
+     */
+    private <T> void prepareForInsert(MongoPersistentEntity<?> entity, T row, LocalDateTime now) {
+        PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(row);
+        accessor.setProperty(entity.getRequiredIdProperty(), new ObjectId().toHexString());
+        accessor.setProperty(entity.getRequiredVersionProperty(), INSERTED_VERSION);
+        accessor.setProperty(entity.getRequiredPersistentProperty("active"), true);
+        accessor.setProperty(entity.getRequiredPersistentProperty("createdAt"), now);
+        accessor.setProperty(entity.getRequiredPersistentProperty("updatedAt"), now);
+    }
+
+    private void hashPasswords(List<User> users) {
+        List<CompletableFuture<Void>> hashes = new ArrayList<>(users.size());
+        for (User user : users) {
+            hashes.add(CompletableFuture.runAsync(
+                () -> user.setPassword(passwordEncoder.encode(user.getPassword())), importExecutor));
+        }
+        CompletableFuture.allOf(hashes.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Field of the unique index named in a duplicate key error, e.g. 'email' for 'email_1' or 'email_unique'
+     */
+    private static String duplicateKeyField(String message) {
+        Matcher matcher = DUPLICATE_KEY_INDEX.matcher(message != null ? message : "");
+        return matcher.find() ? matcher.group(1).replaceAll("_(-?1|unique)$", "") : null;
+    }
+
+    /**
+     * State of one running import
+     */
+    private final class Import<T> {
+        private final Class<T> type;
+        private final Consumer<List<T>> beforeWrite;
+        private final long startedMillis = System.currentTimeMillis();
+        private final List<T> rows = new ArrayList<>();
+        private final List<Integer> rowNumbers = new ArrayList<>();
+        private final List<BulkImportResult.RowError> errors = new ArrayList<>();
+        private int total;
+        private int inserted;
+        private int failed;
+        private String abortReason;
+
+        private Import(Class<T> type, Consumer<List<T>> beforeWrite) {
+            this.type = type;
+            this.beforeWrite = beforeWrite;
+        }
+
+        private void reject(int rowNumber, String field, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BulkImportResult.RowError(rowNumber, field, message));
+            }
+        }
+    }
+}
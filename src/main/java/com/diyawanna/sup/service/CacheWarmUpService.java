@@ -0,0 +1,222 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.cache.UserAccessLog;
+import com.diyawanna.sup.entity.Query;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for preloading caches at startup and on demand
+ *
+ * A warm-up loads, through the regular cached service methods:
+ * - the active universities and faculties lists
+ * - the active queries list and every active query by id and by name
+ * - the most recently accessed users from the {@link UserAccessLog}
+ *
+ * Loads run in parallel on the cacheWarmUpExecutor, whose pool size caps
+ * the number of concurrent database reads. Only one warm-up runs at a time;
+ * its progress is available from {@link #getProgress()}. While the startup
+ * warm-up is running the health endpoint reports the instance as warming
+ * up, so load balancers keep it out of rotation until its caches are hot.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class CacheWarmUpService {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private FacultyService facultyService;
+
+    @Autowired
+    private QueryService queryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserAccessLog userAccessLog;
+
+    @Autowired
+    @Qualifier("cacheWarmUpExecutor")
+    private ThreadPoolTaskExecutor warmUpExecutor;
+
+    @Value("${cache.warmup.on-startup:true}")
+    private boolean warmUpOnStartup;
+
+    @Value("${cache.warmup.user-limit:1000}")
+    private int userLimit;
+
+    @Value("${cache.warmup.startup-timeout-ms:120000}")
+    private long startupTimeoutMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (warmUpOnStartup) {
+            start("startup");
+        }
+    }
+
+    /**
+     * Start a warm-up in the background
+     *
+     * @return false when a warm-up is already running
+     */
+    public boolean start(String trigger) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Progress current = new Progress(trigger);
+        progress = current;
+        Thread worker = new Thread(() -> run(current), "cache-warmup");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    /**
+     * Whether the startup warm-up is still running and within its time limit
+     */
+    public boolean isStartupWarmUpInProgress() {
+        Progress current = progress;
+        return current != null
+            && "startup".equals(current.trigger)
+            && current.finishedAt == null
+            && System.currentTimeMillis() - current.startedMillis < startupTimeoutMs;
+    }
+
+    /**
+     * Status and counters of the current or last warm-up
+     */
+    public Map<String, Object> getProgress() {
+        Progress current = progress;
+        Map<String, Object> result = new HashMap<>();
+        if (current == null) {
+            result.put("status", "NOT_STARTED");
+            return result;
+        }
+        int total = current.totalTasks;
+        int completed = current.completedTasks.get();
+        int failed = current.failedTasks.get();
+        result.put("status", current.status);
+        result.put("trigger", current.trigger);
+        result.put("startedAt", current.startedAt);
+        result.put("finishedAt", current.finishedAt);
+        result.put("totalTasks", total);
+        result.put("completedTasks", completed);
+        result.put("failedTasks", failed);
+        result.put("percentComplete", total > 0 ? (completed + failed) * 100 / total : 0);
+        result.put("loadedByCache", new HashMap<>(current.loadedByCache));
+        if (current.error != null) {
+            result.put("error", current.error);
+        }
+        return result;
+    }
+
+    private void run(Progress current) {
+        try {
+            System.out.println("Cache warm-up (" + current.trigger + ") started at: " + current.startedAt);
+
+            List<Query> queries = queryService.getAllActiveQueries();
+            List<String> userIds = userAccessLog.recentUserIds(userLimit);
+
+            List<WarmUpTask> tasks = new ArrayList<>();
+            tasks.add(new WarmUpTask("universities", universityService::getAllActiveUniversities));
+            tasks.add(new WarmUpTask("faculties", facultyService::getAllActiveFaculties));
+            for (Query query : queries) {
+                tasks.add(new WarmUpTask("queries", () -> queryService.getQueryById(query.getId())));
+                tasks.add(new WarmUpTask("queries", () -> queryService.getQueryByName(query.getName())));
+            }
+            for (String userId : userIds) {
+                tasks.add(new WarmUpTask("users", () -> userService.getUserById(userId)));
+            }
+            current.totalTasks = tasks.size();
+            // The active queries list was loaded while planning
+            current.loadedByCache.merge("queries", 1, Integer::sum);
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+            for (WarmUpTask task : tasks) {
+                futures.add(CompletableFuture.runAsync(() -> execute(task, current), warmUpExecutor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            current.status = "COMPLETED";
+        } catch (Exception e) {
+            current.status = "FAILED";
+            current.error = e.getMessage();
+            System.err.println("Cache warm-up failed: " + e.getMessage());
+        } finally {
+            current.finishedAt = LocalDateTime.now();
+            running.set(false);
+            System.out.println("Cache warm-up (" + current.trigger + ") finished: " + current.completedTasks.get()
+                + " loaded, " + current.failedTasks.get() + " failed, in "
+                + (System.currentTimeMillis() - current.startedMillis) + " ms");
+        }
+    }
+
+    private void execute(WarmUpTask task, Progress current) {
+        try {
+            task.loader.run();
+            current.completedTasks.incrementAndGet();
+            current.loadedByCache.merge(task.cacheName, 1, Integer::sum);
+        } catch (Exception e) {
+            // Stale access log entries or renamed queries; the rest of the warm-up goes on
+            current.failedTasks.incrementAndGet();
+        }
+    }
+
+    /**
+     * One cache load of a warm-up
+     */
+    private static final class WarmUpTask {
+        private final String cacheName;
+        private final Runnable loader;
+
+        private WarmUpTask(String cacheName, Runnable loader) {
+            this.cacheName = cacheName;
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * Progress of one warm-up run
+     */
+    private static final class Progress {
+        private final String trigger;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedMillis = System.currentTimeMillis();
+        private final AtomicInteger completedTasks = new AtomicInteger();
+        private final AtomicInteger failedTasks = new AtomicInteger();
+        private final Map<String, Integer> loadedByCache = new ConcurrentHashMap<>();
+        private volatile int totalTasks;
+        private volatile String status = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Progress(String trigger) {
+            this.trigger = trigger;
+        }
+    }
+}
@@ -1,23 +1,47 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.Cart;
 import com.diyawanna.sup.entity.Cart.CartItem;
 import com.diyawanna.sup.repository.CartRepository;
 import com.diyawanna.sup.exception.CartNotFoundException;
+import com.diyawanna.sup.cache.CacheMaintenance;
+import com.diyawanna.sup.cache.CollectionWriteListener;
+import com.diyawanna.sup.util.CursorPagination;
+import com.diyawanna.sup.util.OptimisticRetry;
+
+import org.bson.Document;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Cart service for business logic and CRUD operations
  * 
+ * Item and status changes are single findAndModify updates ($push/$inc,
+ * a pipeline update for removals, $set) that return the new document, so
+ * concurrent changes to one cart never overwrite each other and large carts
+ * are not rewritten on every change. Each of them increments the version
+ * so that a concurrent read-modify-save of the same cart fails its
+ * optimistic lock instead of overwriting the change.
+ * 
  * @author Diyawanna Team
  * @version 1.0.0
  */
@@ -27,12 +51,35 @@ public class CartService {
     @Autowired
     private CartRepository cartRepository;
 
-    @Cacheable(value = "carts", key = "'all_active'")
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CollectionWriteListener collectionWriteListener;
+
+    @Cacheable(value = "carts", key = "'all_active'", sync = true)
     public List<Cart> getAllActiveCarts() {
         return cartRepository.findByActiveTrue();
     }
 
-    @Cacheable(value = "carts", key = "#id")
+    public CursorPage<Cart> getActiveCartsPage(String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<Cart> rows = cursorPagination.hasCursor(cursor)
+            ? cartRepository.findByActiveTrueAndIdLessThan(cursorPagination.decode(cursor), pageable)
+            : cartRepository.findByActiveTrue(pageable);
+        return cursorPagination.toPage(rows, pageable, Cart::getId);
+    }
+
+    @Cacheable(value = "carts", key = "#id", sync = true)
     public Cart getCartById(String id) {
         Optional<Cart> cart = cartRepository.findById(id);
         if (cart.isEmpty()) {
@@ -41,17 +88,23 @@ public class CartService {
         return cart.get();
     }
 
-    @CacheEvict(value = "carts", allEntries = true)
     public Cart createCart(Cart cart) {
+        cart.setVersion(null); // Inserted as version 0 regardless of the request body
         cart.setActive(true);
         cart.setCreatedAt(LocalDateTime.now());
         cart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(cart);
+        Cart savedCart = cartRepository.save(cart);
+        cacheMaintenance.afterCreate(savedCart);
+        return savedCart;
     }
 
-    @CachePut(value = "carts", key = "#id")
     public Cart updateCart(String id, Cart cartUpdate) {
         Cart existingCart = getCartById(id);
+        if (cartUpdate.getVersion() != null) {
+            // Reject the update if the entity changed since the client read it
+            existingCart.setVersion(cartUpdate.getVersion());
+        }
+        CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(existingCart);
 
         if (cartUpdate.getName() != null) {
             existingCart.setName(cartUpdate.getName());
@@ -73,21 +126,35 @@ public class CartService {
         }
 
         existingCart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(existingCart);
+        Cart savedCart = cartRepository.save(existingCart);
+        cacheMaintenance.afterUpdate(previousKeys, savedCart);
+        return savedCart;
     }
 
-    @CacheEvict(value = "carts", key = "#id")
     public void deleteCart(String id) {
-        Cart cart = getCartById(id);
-        cart.setActive(false);
-        cart.setUpdatedAt(LocalDateTime.now());
-        cartRepository.save(cart);
+        optimisticRetry.execute(() -> {
+            Cart cart = getCartById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(cart);
+            cart.setActive(false);
+            cart.setUpdatedAt(LocalDateTime.now());
+            Cart savedCart = cartRepository.save(cart);
+            cacheMaintenance.afterUpdate(previousKeys, savedCart);
+            return null;
+        });
     }
 
     public List<Cart> getCartsByUser(String userId) {
         return cartRepository.findByUserIdAndActiveTrue(userId);
     }
 
+    public CursorPage<Cart> getCartsByUserPage(String userId, String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<Cart> rows = cursorPagination.hasCursor(cursor)
+            ? cartRepository.findByUserIdAndActiveTrueAndIdLessThan(userId, cursorPagination.decode(cursor), pageable)
+            : cartRepository.findByUserIdAndActiveTrue(userId, pageable);
+        return cursorPagination.toPage(rows, pageable, Cart::getId);
+    }
+
     public List<Cart> getCartsByUserAndStatus(String userId, String status) {
         return cartRepository.findByUserIdAndStatusAndActiveTrue(userId, status);
     }
@@ -96,28 +163,59 @@ public class CartService {
         return cartRepository.findByStatusAndActiveTrue(status);
     }
 
-    @CachePut(value = "carts", key = "#cartId")
+    public CursorPage<Cart> getCartsByStatusPage(String status, String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<Cart> rows = cursorPagination.hasCursor(cursor)
+            ? cartRepository.findByStatusAndActiveTrueAndIdLessThan(status, cursorPagination.decode(cursor), pageable)
+            : cartRepository.findByStatusAndActiveTrue(status, pageable);
+        return cursorPagination.toPage(rows, pageable, Cart::getId);
+    }
+
+    /**
+     * Append an item and add its subtotal to the cart total in one atomic update
+     */
     public Cart addItemToCart(String cartId, CartItem item) {
-        Cart cart = getCartById(cartId);
-        cart.addItem(item);
-        cart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(cart);
+        double subtotal = item.getSubtotal() != null ? item.getSubtotal()
+            : item.getQuantity() != null && item.getPrice() != null ? item.getQuantity() * item.getPrice() : 0.0;
+        item.setSubtotal(subtotal);
+
+        Update update = new Update()
+            .push("items", item)
+            .inc("totalAmount", subtotal)
+            .inc("version", 1)
+            .set("updatedAt", LocalDateTime.now());
+        return modifyCart(cartId, update);
     }
 
-    @CachePut(value = "carts", key = "#cartId")
+    /**
+     * Remove every item with the given id and subtract their subtotals from the cart total in one atomic update
+     */
     public Cart removeItemFromCart(String cartId, String itemId) {
-        Cart cart = getCartById(cartId);
-        cart.removeItem(itemId);
-        cart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(cart);
+        AggregationExpression removedSubtotal = context -> new Document("$sum", new Document("$map",
+            new Document("input", itemsMatching("$eq", itemId))
+                .append("in", new Document("$ifNull", Arrays.asList("$$this.subtotal", 0)))));
+        AggregationExpression newTotal = context -> new Document("$subtract", Arrays.asList(
+            new Document("$ifNull", Arrays.asList("$totalAmount", 0)),
+            removedSubtotal.toDocument(context)));
+        AggregationExpression remainingItems = context -> itemsMatching("$ne", itemId);
+        AggregationExpression nextVersion = context -> new Document("$add", Arrays.asList(
+            new Document("$ifNull", Arrays.asList("$version", 0L)), 1L));
+
+        // Pipeline stages run in order, so the total is computed from the items before removal
+        AggregationUpdate update = AggregationUpdate.update()
+            .set("totalAmount").toValue(newTotal)
+            .set("items").toValue(remainingItems)
+            .set("updatedAt").toValue(Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant()))
+            .set("version").toValue(nextVersion);
+        return modifyCart(cartId, update);
     }
 
-    @CachePut(value = "carts", key = "#cartId")
     public Cart updateCartStatus(String cartId, String status) {
-        Cart cart = getCartById(cartId);
-        cart.setStatus(status);
-        cart.setUpdatedAt(LocalDateTime.now());
-        return cartRepository.save(cart);
+        Update update = new Update()
+            .set("status", status)
+            .inc("version", 1)
+            .set("updatedAt", LocalDateTime.now());
+        return modifyCart(cartId, update);
     }
 
     public List<Cart> searchCartsByName(String name) {
@@ -149,5 +247,28 @@ public class CartService {
         List<Cart> carts = cartRepository.findByUserIdAndActiveTrue(userId);
         return carts.stream().findFirst();
     }
-}
 
+    /**
+     * Apply an update to one cart with findAndModify and refresh its cache entries from the new document
+     */
+    private Cart modifyCart(String cartId, UpdateDefinition update) {
+        Query query = new Query(Criteria.where("id").is(cartId));
+        Cart savedCart = mongoTemplate.findAndModify(query, update,
+            FindAndModifyOptions.options().returnNew(true), Cart.class);
+        if (savedCart == null) {
+            throw new CartNotFoundException("Cart not found with id: " + cartId);
+        }
+        cacheMaintenance.afterPartialUpdate(savedCart);
+        collectionWriteListener.afterDirectWrite(mongoTemplate.getCollectionName(Cart.class), cartId,
+            savedCart.getVersion());
+        return savedCart;
+    }
+
+    /**
+     * $filter expression selecting the cart items whose itemId compares to the given id with the operator
+     */
+    private static Document itemsMatching(String operator, String itemId) {
+        return new Document("$filter", new Document("input", new Document("$ifNull", Arrays.asList("$items", List.of())))
+            .append("cond", new Document(operator, Arrays.asList("$$this.itemId", itemId))));
+    }
+}
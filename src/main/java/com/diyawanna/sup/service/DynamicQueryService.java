@@ -1,33 +1,53 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.cache.DynamicQueryResultCache;
+import com.diyawanna.sup.dto.QueryExecutionRequest;
+import com.diyawanna.sup.dto.QueryExecutionResponse;
 import com.diyawanna.sup.entity.Query;
+import com.diyawanna.sup.query.QueryOptions;
+import com.diyawanna.sup.query.QueryPlan;
+import com.diyawanna.sup.query.QueryPlanCompiler;
+import com.diyawanna.sup.query.QueryType;
 import com.diyawanna.sup.repository.QueryRepository;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.bson.Document;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.BasicQuery;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 /**
  * Dynamic Query Management Service
  * 
  * This service provides:
  * - Loading query configurations from external JSON
- * - Dynamic query execution with parameter substitution
+ * - Dynamic query execution against pre-compiled query plans
  * - Support for MongoDB find and aggregation operations
+ * - Result caching with per-query time-to-live
+ * - Concurrent batch execution with an overall deadline
  * - Message and variable mapping management
  * 
  * @author Diyawanna Team
@@ -42,11 +62,32 @@ public class DynamicQueryService {
     @Autowired
     private QueryRepository queryRepository;
 
+    @Autowired
+    private DynamicQueryResultCache resultCache;
+
+    @Autowired
+    @Qualifier("dynamicQueryExecutor")
+    private ThreadPoolTaskExecutor dynamicQueryExecutor;
+
+    @Value("${query.result-cache.default-ttl-seconds:300}")
+    private int defaultCacheTtlSeconds;
+
+    @Value("${query.batch.max-size:50}")
+    private int batchMaxSize;
+
+    @Value("${query.batch.default-timeout-ms:10000}")
+    private long batchDefaultTimeoutMs;
+
+    @Value("${query.batch.max-timeout-ms:60000}")
+    private long batchMaxTimeoutMs;
+
     private JsonNode queryConfig;
     private Map<String, String> successMessages;
     private Map<String, String> errorMessages;
     private Map<String, JsonNode> queryMappings;
     private Map<String, String> variableMappings;
+    private Map<String, QueryPlan> queryPlans;
+    private final Map<String, StoredQueryPlan> storedQueryPlans = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void loadConfiguration() {
@@ -56,8 +97,8 @@ public class DynamicQueryService {
             queryConfig = mapper.readTree(resource.getInputStream());
             
             loadMessages();
-            loadQueryMappings();
             loadVariableMappings();
+            loadQueryMappings();
             
         } catch (IOException e) {
             throw new RuntimeException("Failed to load query configuration", e);
@@ -91,6 +132,43 @@ public class DynamicQueryService {
             mappings.fields().forEachRemaining(entry -> 
                 queryMappings.put(entry.getKey(), entry.getValue()));
         }
+        compileQueryPlans();
+    }
+
+    /**
+     * Compile every configured query mapping into an immutable plan, keyed by "entity.operation"
+     */
+    private void compileQueryPlans() {
+        Map<String, QueryPlan> plans = new HashMap<>();
+        queryMappings.forEach((entity, operations) -> 
+            operations.fields().forEachRemaining(entry -> {
+                String queryName = entity + "." + entry.getKey();
+                JsonNode mapping = entry.getValue();
+                plans.put(queryName, QueryPlanCompiler.compile(
+                    queryName,
+                    mapping.path("query").asText(null),
+                    mapping.path("collection").asText(null),
+                    mapping.path("type").asText(null),
+                    variableMappings,
+                    QueryOptions.of(
+                        optionText(mapping.get("projection")),
+                        optionText(mapping.get("sort")),
+                        mapping.hasNonNull("limit") ? mapping.get("limit").asInt() : null,
+                        mapping.hasNonNull("skip") ? mapping.get("skip").asInt() : null,
+                        optionText(mapping.get("hint")),
+                        mapping.hasNonNull("maxTimeMS") ? mapping.get("maxTimeMS").asLong() : null)));
+            }));
+        queryPlans = Collections.unmodifiableMap(plans);
+    }
+
+    /**
+     * Read an option that may be configured either as text or as an inline JSON object
+     */
+    private String optionText(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        return node.isObject() ? node.toString() : node.asText();
     }
 
     private void loadVariableMappings() {
@@ -106,38 +184,136 @@ public class DynamicQueryService {
      * Execute dynamic query by name with parameters
      */
     public Object executeDynamicQuery(String queryName, Map<String, Object> parameters) {
+        return executeDynamicQuery(queryName, parameters, false, null);
+    }
+
+    /**
+     * Execute dynamic query by name, serving repeated executions from the result cache when cacheable
+     *
+     * @param cacheTimeoutSeconds time-to-live of the cached result; the configured default when null
+     */
+    public Object executeDynamicQuery(String queryName, Map<String, Object> parameters,
+                                      boolean cacheable, Integer cacheTimeoutSeconds) {
+        return executeDynamicQuery(queryName, parameters, cacheable, cacheTimeoutSeconds, null);
+    }
+
+    /**
+     * @param maxTimeMs upper bound on the server-side time limit of the query; the plan's own limit when null
+     */
+    private Object executeDynamicQuery(String queryName, Map<String, Object> parameters,
+                                       boolean cacheable, Integer cacheTimeoutSeconds, Long maxTimeMs) {
         try {
-            // Parse query name (e.g., "user.findById")
-            String[] parts = queryName.split("\\.");
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Invalid query name format. Expected: 'entity.operation'");
+            QueryPlan plan = resolvePlan(queryName);
+            QueryOptions options = maxTimeMs != null
+                    ? plan.getOptions().withMaxTimeAtMost(maxTimeMs)
+                    : plan.getOptions();
+            if (cacheable) {
+                return executeCached(queryName, plan, options, parameters, cacheTimeoutSeconds);
             }
+            return executeQuery(plan, options, parameters);
             
-            String entity = parts[0];
-            String operation = parts[1];
-            
-            // Get query mapping
-            JsonNode entityMappings = queryMappings.get(entity);
-            if (entityMappings == null) {
-                throw new IllegalArgumentException("Entity not found: " + entity);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute dynamic query: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Execute several dynamic queries concurrently under one overall deadline
+     *
+     * Every query runs on the bounded batch executor, so the batch takes about
+     * as long as its slowest query. Results come back in request order; a query
+     * that fails, is rejected by a saturated pool, or is still running when the
+     * deadline passes is reported individually without failing the others.
+     * The time left until the deadline is also sent as each query's maxTimeMS,
+     * so MongoDB ends a query the batch no longer waits for and its executor
+     * thread and connection are released.
+     */
+    public List<QueryExecutionResponse> executeBatch(List<QueryExecutionRequest> requests, Long timeoutMs) {
+        if (requests.size() > batchMaxSize) {
+            throw new IllegalArgumentException("Batch size " + requests.size() + " exceeds maximum of " + batchMaxSize);
+        }
+        long timeout = timeoutMs != null ? Math.min(timeoutMs, batchMaxTimeoutMs) : batchDefaultTimeoutMs;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        List<Future<QueryExecutionResponse>> futures = new ArrayList<>(requests.size());
+        for (QueryExecutionRequest request : requests) {
+            try {
+                futures.add(dynamicQueryExecutor.submit(() -> executeBatchEntry(request, deadline)));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
             }
-            
-            JsonNode queryMapping = entityMappings.get(operation);
-            if (queryMapping == null) {
-                throw new IllegalArgumentException("Operation not found: " + operation + " for entity: " + entity);
+        }
+
+        List<QueryExecutionResponse> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String queryName = requests.get(i).getQueryName();
+            Future<QueryExecutionResponse> future = futures.get(i);
+            if (future == null) {
+                responses.add(batchFailure(queryName, "Query rejected: batch executor is saturated"));
+                continue;
             }
-            
-            // Extract query details
-            String queryString = queryMapping.get("query").asText();
-            String collection = queryMapping.get("collection").asText();
-            String type = queryMapping.get("type").asText();
-            
-            // Substitute parameters
-            String processedQuery = substituteParameters(queryString, parameters);
-            
-            // Execute query based on type
-            return executeQuery(processedQuery, collection, type);
-            
+            try {
+                long remaining = deadline - System.nanoTime();
+                responses.add(future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                responses.add(batchFailure(queryName, "Query timed out after " + timeout + " ms"));
+            } catch (ExecutionException e) {
+                responses.add(batchFailure(queryName, e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> { if (f != null) f.cancel(true); });
+                throw new RuntimeException("Batch execution interrupted", e);
+            }
+        }
+        return responses;
+    }
+
+    private QueryExecutionResponse executeBatchEntry(QueryExecutionRequest request, long deadline) {
+        long start = System.nanoTime();
+        if (!validateParameters(request.getQueryName(), request.getParameters())) {
+            return batchFailure(request.getQueryName(),
+                    "Invalid or missing parameters for query: " + request.getQueryName());
+        }
+        // Time spent queued counts against the deadline
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - start);
+        if (remainingMs <= 0) {
+            return batchFailure(request.getQueryName(), "Query timed out before it started");
+        }
+        try {
+            Object result = executeDynamicQuery(request.getQueryName(), request.getParameters(),
+                    request.isCacheable(), request.getCacheTimeoutSeconds(), remainingMs);
+
+            QueryExecutionResponse response = new QueryExecutionResponse(true, getSuccessMessage("query_executed"), result);
+            response.setQueryName(request.getQueryName());
+            response.setExecutionDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return response;
+        } catch (Exception e) {
+            QueryExecutionResponse response = batchFailure(request.getQueryName(), e.getMessage());
+            response.setExecutionDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return response;
+        }
+    }
+
+    private QueryExecutionResponse batchFailure(String queryName, String message) {
+        QueryExecutionResponse response = new QueryExecutionResponse(false, message, null);
+        response.setQueryName(queryName);
+        return response;
+    }
+
+    /**
+     * Open a cursor-backed stream over the results of a dynamic query
+     *
+     * The query is bound and sent to MongoDB before this method returns, so
+     * parameter and execution errors surface to the caller; documents are then
+     * pulled from the server cursor batch by batch as the stream is consumed.
+     * The caller must close the stream to release the cursor.
+     */
+    public Stream<Document> streamDynamicQuery(String queryName, Map<String, Object> parameters) {
+        try {
+            QueryPlan plan = resolvePlan(queryName);
+            return streamQuery(plan, parameters);
+
         } catch (Exception e) {
             throw new RuntimeException("Failed to execute dynamic query: " + e.getMessage(), e);
         }
@@ -164,11 +340,13 @@ public class DynamicQueryService {
                 allParameters.putAll(parameters);
             }
             
-            // Substitute parameters
-            String processedQuery = substituteParameters(query.getQueryContent(), allParameters);
-            
-            // Execute query
-            return executeQuery(processedQuery, query.getCollection(), query.getQueryType());
+            QueryPlan plan = getStoredQueryPlan(query);
+            if (query.isCacheable()) {
+                // The revision is part of the key so results of an edited query are never reused
+                return executeCached("stored:" + query.getId() + "@" + query.getUpdatedAt(), plan,
+                        plan.getOptions(), allParameters, query.getCacheTimeoutSeconds());
+            }
+            return executeQuery(plan, plan.getOptions(), allParameters);
             
         } catch (Exception e) {
             throw new RuntimeException("Failed to execute stored query: " + e.getMessage(), e);
@@ -176,63 +354,72 @@ public class DynamicQueryService {
     }
 
     /**
-     * Substitute parameters in query string
+     * Resolve the compiled plan for a configured query name (e.g. "user.findById")
      */
-    private String substituteParameters(String queryString, Map<String, Object> parameters) {
-        if (parameters == null || parameters.isEmpty()) {
-            return queryString;
+    private QueryPlan resolvePlan(String queryName) {
+        QueryPlan plan = queryPlans.get(queryName);
+        if (plan != null) {
+            return plan;
         }
-        
-        String result = queryString;
-        Pattern pattern = Pattern.compile("\\$\\{([^}]+)\\}");
-        Matcher matcher = pattern.matcher(queryString);
-        
-        while (matcher.find()) {
-            String paramName = matcher.group(1);
-            Object paramValue = parameters.get(paramName);
-            
-            if (paramValue == null) {
-                throw new IllegalArgumentException("Missing required parameter: " + paramName);
-            }
-            
-            // Convert parameter value to appropriate string representation
-            String valueStr = convertParameterValue(paramValue, paramName);
-            result = result.replace("${" + paramName + "}", valueStr);
+
+        String[] parts = queryName.split("\\.");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid query name format. Expected: 'entity.operation'");
         }
-        
-        return result;
+        if (queryMappings.get(parts[0]) == null) {
+            throw new IllegalArgumentException("Entity not found: " + parts[0]);
+        }
+        throw new IllegalArgumentException("Operation not found: " + parts[1] + " for entity: " + parts[0]);
     }
 
     /**
-     * Convert parameter value to appropriate string representation
+     * Get the compiled plan for a stored query, recompiling only when the query was modified
      */
-    private String convertParameterValue(Object value, String paramName) {
-        String type = variableMappings.get(paramName);
-        
-        if ("Integer".equals(type)) {
-            return value.toString();
-        } else if ("String".equals(type)) {
-            return "'" + value.toString() + "'";
-        } else {
-            // Default to string representation
-            return value.toString();
+    private QueryPlan getStoredQueryPlan(Query query) {
+        StoredQueryPlan cached = storedQueryPlans.get(query.getId());
+        if (cached != null && Objects.equals(cached.updatedAt, query.getUpdatedAt())) {
+            return cached.plan;
         }
+
+        Map<String, String> variableTypes = new HashMap<>(variableMappings);
+        variableTypes.putAll(query.getVariableMappings());
+
+        QueryOptions options = QueryOptions.of(query.getProjection(), query.getSort(), query.getLimit(),
+                query.getSkip(), query.getHint(), query.getMaxTimeMS());
+        QueryPlan plan = QueryPlanCompiler.compile(query.getName(), query.getQueryContent(),
+                query.getCollection(), query.getQueryType(), variableTypes, options);
+        storedQueryPlans.put(query.getId(), new StoredQueryPlan(query.getUpdatedAt(), plan));
+        return plan;
     }
 
     /**
-     * Execute query based on type
+     * Execute compiled plan based on type
+     *
+     * @param options read options to apply; the plan's own, possibly with a tighter time limit
      */
-    private Object executeQuery(String queryString, String collection, String type) {
+    private Object executeQuery(QueryPlan plan, QueryOptions options, Map<String, Object> parameters) {
+        return executeQuery(plan, options, plan.getType() == QueryType.AGGREGATE
+                ? plan.bindPipeline(parameters)
+                : plan.bindFilter(parameters));
+    }
+
+    /**
+     * Execute compiled plan with its filter or pipeline already bound
+     *
+     * @param boundQuery filter Document for FIND and COUNT plans, pipeline stage list for AGGREGATE plans
+     */
+    @SuppressWarnings("unchecked")
+    private Object executeQuery(QueryPlan plan, QueryOptions options, Object boundQuery) {
         try {
-            switch (type.toUpperCase()) {
-                case "FIND":
-                    return executeFindQuery(queryString, collection);
-                case "AGGREGATE":
-                    return executeAggregateQuery(queryString, collection);
-                case "COUNT":
-                    return executeCountQuery(queryString, collection);
+            switch (plan.getType()) {
+                case FIND:
+                    return executeFindQuery(options.toQuery((Document) boundQuery), plan.getCollection());
+                case AGGREGATE:
+                    return executeAggregateQuery((List<Document>) boundQuery, options, plan.getCollection());
+                case COUNT:
+                    return executeCountQuery(options.toQuery((Document) boundQuery), plan.getCollection());
                 default:
-                    throw new IllegalArgumentException("Unsupported query type: " + type);
+                    throw new IllegalArgumentException("Unsupported query type: " + plan.getType());
             }
         } catch (Exception e) {
             throw new RuntimeException("Query execution failed: " + e.getMessage(), e);
@@ -240,124 +427,102 @@ public class DynamicQueryService {
     }
 
     /**
-     * Execute MongoDB find query
+     * Execute a compiled plan through the result cache
+     *
+     * The cache key combines the query identity with a hash of the bound
+     * filter or pipeline, so parameter values that bind to the same typed
+     * query share one entry. A miss executes that same bound query instead
+     * of binding the parameters again.
+     */
+    private Object executeCached(String queryKey, QueryPlan plan, QueryOptions options,
+                                 Map<String, Object> parameters, Integer cacheTimeoutSeconds) {
+        Object boundQuery = plan.getType() == QueryType.AGGREGATE
+                ? plan.bindPipeline(parameters)
+                : plan.bindFilter(parameters);
+        int ttlSeconds = cacheTimeoutSeconds != null ? cacheTimeoutSeconds : defaultCacheTtlSeconds;
+        return resultCache.get(resultCache.keyFor(queryKey, plan.getCollection(), boundQuery), ttlSeconds,
+                () -> executeQuery(plan, options, boundQuery));
+    }
+
+    /**
+     * Open a result stream for a compiled plan; COUNT plans yield a single {count: n} document
      */
-    private List<Object> executeFindQuery(String queryString, String collection) {
+    private Stream<Document> streamQuery(QueryPlan plan, Map<String, Object> parameters) {
         try {
-            // Parse JSON query string to create MongoDB query
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode queryJson = mapper.readTree(queryString);
-            
-            org.springframework.data.mongodb.core.query.Query mongoQuery = 
-                new org.springframework.data.mongodb.core.query.Query();
-            
-            // Build criteria from JSON
-            Criteria criteria = buildCriteriaFromJson(queryJson);
-            mongoQuery.addCriteria(criteria);
-            
-            return mongoTemplate.find(mongoQuery, Object.class, collection);
-            
+            switch (plan.getType()) {
+                case FIND:
+                    return mongoTemplate.stream(plan.getOptions().toQuery(plan.bindFilter(parameters)),
+                            Document.class, plan.getCollection());
+                case AGGREGATE:
+                    return mongoTemplate.aggregateStream(
+                            buildAggregation(plan.bindPipeline(parameters), plan.getOptions()),
+                            plan.getCollection(), Document.class);
+                case COUNT:
+                    long count = executeCountQuery(plan.getOptions().toQuery(plan.bindFilter(parameters)),
+                            plan.getCollection());
+                    return Stream.of(new Document("count", count));
+                default:
+                    throw new IllegalArgumentException("Unsupported query type: " + plan.getType());
+            }
         } catch (Exception e) {
-            throw new RuntimeException("Find query execution failed: " + e.getMessage(), e);
+            throw new RuntimeException("Query execution failed: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Execute MongoDB aggregation query
+     * Execute MongoDB find query
+     *
+     * The bound filter is handed to the driver unchanged, so every query
+     * operator ($gt, $ne, $nin, $exists, $elemMatch, $and/$or, dotted paths, ...)
+     * is as selective as the configured mapping. Projection, sort, skip/limit,
+     * hint and maxTimeMS from the plan options are already applied to the query.
      */
-    private List<Object> executeAggregateQuery(String queryString, String collection) {
+    private List<Document> executeFindQuery(BasicQuery query, String collection) {
         try {
-            // Parse aggregation pipeline
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode pipelineJson = mapper.readTree(queryString);
-            
-            List<org.springframework.data.mongodb.core.aggregation.AggregationOperation> operations = 
-                new ArrayList<>();
-            
-            // Build aggregation operations from JSON
-            if (pipelineJson.isArray()) {
-                for (JsonNode stage : pipelineJson) {
-                    // This is a simplified implementation
-                    // In a production environment, you would need more sophisticated parsing
-                    operations.add(Aggregation.stage(stage.toString()));
-                }
-            }
-            
-            Aggregation aggregation = Aggregation.newAggregation(operations);
-            AggregationResults<Object> results = mongoTemplate.aggregate(aggregation, collection, Object.class);
-            
-            return results.getMappedResults();
+            return mongoTemplate.find(query, Document.class, collection);
             
         } catch (Exception e) {
-            throw new RuntimeException("Aggregation query execution failed: " + e.getMessage(), e);
+            throw new RuntimeException("Find query execution failed: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Execute MongoDB count query
+     * Execute MongoDB aggregation query
      */
-    private long executeCountQuery(String queryString, String collection) {
+    private List<Document> executeAggregateQuery(List<Document> pipeline, QueryOptions options, String collection) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode queryJson = mapper.readTree(queryString);
-            
-            org.springframework.data.mongodb.core.query.Query mongoQuery = 
-                new org.springframework.data.mongodb.core.query.Query();
-            
-            Criteria criteria = buildCriteriaFromJson(queryJson);
-            mongoQuery.addCriteria(criteria);
+            Aggregation aggregation = buildAggregation(pipeline, options);
+            AggregationResults<Document> results = mongoTemplate.aggregate(aggregation, collection, Document.class);
             
-            return mongoTemplate.count(mongoQuery, collection);
+            return results.getMappedResults();
             
         } catch (Exception e) {
-            throw new RuntimeException("Count query execution failed: " + e.getMessage(), e);
+            throw new RuntimeException("Aggregation query execution failed: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Build MongoDB Criteria from JSON
+     * Wrap bound pipeline stages into an aggregation carrying the plan's hint and time limit
      */
-    private Criteria buildCriteriaFromJson(JsonNode queryJson) {
-        Criteria criteria = new Criteria();
-        
-        queryJson.fields().forEachRemaining(entry -> {
-            String field = entry.getKey();
-            JsonNode value = entry.getValue();
-            
-            if (value.isTextual()) {
-                criteria.and(field).is(value.asText());
-            } else if (value.isNumber()) {
-                criteria.and(field).is(value.asLong());
-            } else if (value.isBoolean()) {
-                criteria.and(field).is(value.asBoolean());
-            } else if (value.isObject()) {
-                // Handle complex queries like regex, range, etc.
-                handleComplexCriteria(criteria, field, value);
-            }
-        });
-        
-        return criteria;
+    private Aggregation buildAggregation(List<Document> pipeline, QueryOptions options) {
+        List<org.springframework.data.mongodb.core.aggregation.AggregationOperation> operations = 
+            new ArrayList<>(pipeline.size());
+        for (Document stage : pipeline) {
+            operations.add(Aggregation.stage(stage));
+        }
+        return Aggregation.newAggregation(operations)
+            .withOptions(options.toAggregationOptions());
     }
 
     /**
-     * Handle complex criteria like regex, range queries
+     * Execute MongoDB count query
      */
-    private void handleComplexCriteria(Criteria criteria, String field, JsonNode value) {
-        if (value.has("$regex")) {
-            String regex = value.get("$regex").asText();
-            String options = value.has("$options") ? value.get("$options").asText() : "";
-            criteria.and(field).regex(regex, options);
-        } else if (value.has("$gte") || value.has("$lte")) {
-            if (value.has("$gte")) {
-                criteria.and(field).gte(value.get("$gte").asLong());
-            }
-            if (value.has("$lte")) {
-                criteria.and(field).lte(value.get("$lte").asLong());
-            }
-        } else if (value.has("$in")) {
-            List<Object> inValues = new ArrayList<>();
-            value.get("$in").forEach(item -> inValues.add(item.asText()));
-            criteria.and(field).in(inValues);
+    private long executeCountQuery(BasicQuery query, String collection) {
+        try {
+            return mongoTemplate.count(query, collection);
+            
+        } catch (Exception e) {
+            throw new RuntimeException("Count query execution failed: " + e.getMessage(), e);
         }
     }
 
@@ -394,22 +559,12 @@ public class DynamicQueryService {
      */
     public boolean validateParameters(String queryName, Map<String, Object> parameters) {
         try {
-            String[] parts = queryName.split("\\.");
-            if (parts.length != 2) return false;
-            
-            JsonNode entityMappings = queryMappings.get(parts[0]);
-            if (entityMappings == null) return false;
+            QueryPlan plan = queryPlans.get(queryName);
+            if (plan == null) return false;
             
-            JsonNode queryMapping = entityMappings.get(parts[1]);
-            if (queryMapping == null) return false;
-            
-            JsonNode requiredParams = queryMapping.get("parameters");
-            if (requiredParams != null && requiredParams.isArray()) {
-                for (JsonNode param : requiredParams) {
-                    String paramName = param.asText();
-                    if (!parameters.containsKey(paramName)) {
-                        return false;
-                    }
+            for (String paramName : plan.getParameterNames()) {
+                if (parameters == null || !parameters.containsKey(paramName)) {
+                    return false;
                 }
             }
             
@@ -418,5 +573,17 @@ public class DynamicQueryService {
             return false;
         }
     }
-}
 
+    /**
+     * Compiled plan of a stored query, tagged with the revision it was compiled from
+     */
+    private static final class StoredQueryPlan {
+        private final LocalDateTime updatedAt;
+        private final QueryPlan plan;
+
+        private StoredQueryPlan(LocalDateTime updatedAt, QueryPlan plan) {
+            this.updatedAt = updatedAt;
+            this.plan = plan;
+        }
+    }
+}
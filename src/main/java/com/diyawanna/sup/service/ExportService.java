@@ -0,0 +1,332 @@
+package com.diyawanna.sup.service;
+
+import com.diyawanna.sup.entity.Cart;
+import com.diyawanna.sup.entity.Faculty;
+import com.diyawanna.sup.entity.User;
+import com.mongodb.ReadPreference;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Service for streaming dataset exports as CSV or NDJSON
+ *
+ * Exports read raw documents from a MongoDB cursor with a projection of the
+ * requested fields and write each row as soon as it is read, so memory use
+ * does not grow with the dataset. They never go through the entity caches.
+ * Filters are equality matches on a per-dataset set of fields, plus
+ * createdFrom/createdTo and updatedFrom/updatedTo date ranges. Cursors are
+ * read with export.read-preference, so nightly extracts can be pointed at
+ * secondaries. Cursors keep the server's idle timeout (10 minutes by
+ * default), which a client must not exceed while reading one batch of
+ * export.batch-size rows; export.no-cursor-timeout lifts it.
+ *
+ * Passwords and versions are never exported.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Service
+public class ExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final JsonWriterSettings JSON_SETTINGS =
+            JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private static final Map<String, Dataset> DATASETS = new LinkedHashMap<>();
+
+    static {
+        DATASETS.put("users", new Dataset(User.class,
+            Arrays.asList("id", "name", "username", "email", "age", "university", "school", "work",
+                "phoneNumber", "address", "profilePicture", "active", "createdAt", "updatedAt"),
+            Arrays.asList("active", "university", "school", "age")));
+        DATASETS.put("faculties", new Dataset(Faculty.class,
+            Arrays.asList("id", "name", "description", "universityId", "universityName", "dean",
+                "contactEmail", "contactPhone", "subjects", "active", "createdAt", "updatedAt"),
+            Arrays.asList("active", "universityId", "universityName")));
+        DATASETS.put("carts", new Dataset(Cart.class,
+            Arrays.asList("id", "name", "description", "userId", "userName", "items", "totalAmount",
+                "status", "active", "createdAt", "updatedAt"),
+            Arrays.asList("active", "userId", "status")));
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${export.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${export.read-preference:primary}")
+    private String readPreference;
+
+    @Value("${export.no-cursor-timeout:false}")
+    private boolean noCursorTimeout;
+
+    /**
+     * Validate an export request and build its cursor query
+     *
+     * @param fields  comma-separated fields, or null for every exportable field
+     * @param filters field and date range filters
+     * @throws IllegalArgumentException for unknown datasets, formats, fields or filters
+     */
+    public ExportPlan plan(String datasetName, String format, String fields, Map<String, String> filters) {
+        Dataset dataset = DATASETS.get(datasetName);
+        if (dataset == null) {
+            throw new IllegalArgumentException("Unknown dataset: " + datasetName + "; expected one of " + DATASETS.keySet());
+        }
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unknown format: " + format + "; expected csv or ndjson");
+        }
+
+        List<String> columns = new ArrayList<>();
+        if (fields == null || fields.isBlank()) {
+            columns.addAll(dataset.fields);
+        } else {
+            for (String field : fields.split(",")) {
+                String column = field.trim();
+                if (!dataset.fields.contains(column)) {
+                    throw new IllegalArgumentException("Field cannot be exported: " + column);
+                }
+                if (!columns.contains(column)) {
+                    columns.add(column);
+                }
+            }
+        }
+
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(dataset.type);
+        Criteria criteria = new Criteria();
+        Map<String, Criteria> ranges = new LinkedHashMap<>();
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            addFilter(criteria, ranges, entity, dataset, filter.getKey(), filter.getValue());
+        }
+
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.ASC, "_id"))
+            .cursorBatchSize(batchSize);
+        if (noCursorTimeout) {
+            // Only for clients slower than one batch per server idle timeout; a crashed node leaks the cursor
+            query.noCursorTimeout();
+        }
+        query.withReadPreference(ReadPreference.valueOf(readPreference));
+        for (String column : columns) {
+            query.fields().include(fieldName(column));
+        }
+        if (!columns.contains("id")) {
+            query.fields().exclude("_id");
+        }
+        return new ExportPlan(datasetName, format, columns, query, mongoTemplate.getCollectionName(dataset.type));
+    }
+
+    /**
+     * Stream the rows of a planned export to the output in its format
+     */
+    public void write(ExportPlan plan, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (Stream<Document> documents = mongoTemplate.stream(plan.query, Document.class, plan.collection)) {
+            if (FORMAT_CSV.equals(plan.format)) {
+                writeCsvRow(writer, plan.fields);
+            }
+            Iterator<Document> iterator = documents.iterator();
+            List<String> values = new ArrayList<>(plan.fields.size());
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                if (FORMAT_CSV.equals(plan.format)) {
+                    values.clear();
+                    for (String field : plan.fields) {
+                        values.add(csvValue(document.get(fieldName(field))));
+                    }
+                    writeCsvRow(writer, values);
+                } else {
+                    writer.write(document.toJson(JSON_SETTINGS));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void addFilter(Criteria criteria, Map<String, Criteria> ranges, MongoPersistentEntity<?> entity,
+                           Dataset dataset, String name, String value) {
+        switch (name) {
+            case "createdFrom":
+                range(criteria, ranges, "createdAt").gte(parseDate(name, value));
+                return;
+            case "createdTo":
+                range(criteria, ranges, "createdAt").lt(parseDate(name, value));
+                return;
+            case "updatedFrom":
+                range(criteria, ranges, "updatedAt").gte(parseDate(name, value));
+                return;
+            case "updatedTo":
+                range(criteria, ranges, "updatedAt").lt(parseDate(name, value));
+                return;
+            default:
+                break;
+        }
+        if (!dataset.filters.contains(name)) {
+            throw new IllegalArgumentException("Unsupported filter: " + name + "; expected one of " + dataset.filters
+                + ", createdFrom, createdTo, updatedFrom or updatedTo");
+        }
+        MongoPersistentProperty property = entity.getRequiredPersistentProperty(name);
+        criteria.and(property.getFieldName()).is(parseValue(property.getType(), name, value));
+    }
+
+    /**
+     * Criteria of a date field shared by its lower and upper bound, which must be one expression
+     */
+    private static Criteria range(Criteria criteria, Map<String, Criteria> ranges, String field) {
+        return ranges.computeIfAbsent(field, criteria::and);
+    }
+
+    private static Object parseValue(Class<?> type, String name, String value) {
+        try {
+            if (type == boolean.class || type == Boolean.class) {
+                if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                    throw new IllegalArgumentException("Filter " + name + " must be true or false");
+                }
+                return Boolean.parseBoolean(value);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Filter " + name + " must be a number");
+        }
+    }
+
+    /**
+     * Parse an ISO date or date-time in the server time zone, the zone the audit dates are written in
+     */
+    private static Date parseDate(String name, String value) {
+        try {
+            LocalDateTime dateTime = value.contains("T") ? LocalDateTime.parse(value) : LocalDate.parse(value).atStartOfDay();
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Filter " + name + " must be an ISO date or date-time");
+        }
+    }
+
+    private static String fieldName(String column) {
+        return "id".equals(column) ? "_id" : column;
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof ObjectId) {
+            return ((ObjectId) value).toHexString();
+        }
+        if (value instanceof Date) {
+            return LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault()).toString();
+        }
+        if (value instanceof Document || value instanceof List) {
+            // Nested values are written as JSON; wrapping lets the BSON writer handle any value
+            String json = new Document("v", value).toJson(JSON_SETTINGS);
+            return json.substring(json.indexOf(':') + 1, json.length() - 1).trim();
+        }
+        if (value instanceof String) {
+            String text = (String) value;
+            // Keep spreadsheet applications from evaluating user-entered text as a formula
+            if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                return "'" + text;
+            }
+            return text;
+        }
+        return value.toString();
+    }
+
+    private static void writeCsvRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Validated export: dataset, format, columns and cursor query
+     */
+    public static final class ExportPlan {
+        private final String dataset;
+        private final String format;
+        private final List<String> fields;
+        private final Query query;
+        private final String collection;
+
+        private ExportPlan(String dataset, String format, List<String> fields, Query query, String collection) {
+            this.dataset = dataset;
+            this.format = format;
+            this.fields = fields;
+            this.query = query;
+            this.collection = collection;
+        }
+
+        public String getDataset() {
+            return dataset;
+        }
+
+        public String getFormat() {
+            return format;
+        }
+    }
+
+    /**
+     * Entity type, exportable fields and filterable fields of one dataset
+     */
+    private static final class Dataset {
+        private final Class<?> type;
+        private final List<String> fields;
+        private final List<String> filters;
+
+        private Dataset(Class<?> type, List<String> fields, List<String> filters) {
+            this.type = type;
+            this.fields = fields;
+            this.filters = filters;
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.Faculty;
 import com.diyawanna.sup.repository.FacultyRepository;
 import com.diyawanna.sup.exception.FacultyNotFoundException;
+import com.diyawanna.sup.cache.CacheMaintenance;
+import com.diyawanna.sup.util.CursorPagination;
+import com.diyawanna.sup.util.OptimisticRetry;
+import com.diyawanna.sup.util.PartialUpdater;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -23,15 +27,39 @@ import java.util.Optional;
 @Service
 public class FacultyService {
 
+    // Properties updateFaculty may change
+    private static final List<String> UPDATABLE_PROPERTIES = List.of(
+        "name", "description", "universityId", "universityName", "dean", "contactEmail", "contactPhone", "subjects");
+
     @Autowired
     private FacultyRepository facultyRepository;
 
-    @Cacheable(value = "faculties", key = "'all_active'")
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Cacheable(value = "faculties", key = "'all_active'", sync = true)
     public List<Faculty> getAllActiveFaculties() {
         return facultyRepository.findByActiveTrue();
     }
 
-    @Cacheable(value = "faculties", key = "#id")
+    public CursorPage<Faculty> getActiveFacultiesPage(String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<Faculty> rows = cursorPagination.hasCursor(cursor)
+            ? facultyRepository.findByActiveTrueAndIdLessThan(cursorPagination.decode(cursor), pageable)
+            : facultyRepository.findByActiveTrue(pageable);
+        return cursorPagination.toPage(rows, pageable, Faculty::getId);
+    }
+
+    @Cacheable(value = "faculties", key = "#id", sync = true)
     public Faculty getFacultyById(String id) {
         Optional<Faculty> faculty = facultyRepository.findById(id);
         if (faculty.isEmpty()) {
@@ -40,59 +68,48 @@ public class FacultyService {
         return faculty.get();
     }
 
-    @CacheEvict(value = "faculties", allEntries = true)
     public Faculty createFaculty(Faculty faculty) {
+        faculty.setVersion(null); // Inserted as version 0 regardless of the request body
         faculty.setActive(true);
         faculty.setCreatedAt(LocalDateTime.now());
         faculty.setUpdatedAt(LocalDateTime.now());
-        return facultyRepository.save(faculty);
+        Faculty savedFaculty = facultyRepository.save(faculty);
+        cacheMaintenance.afterCreate(savedFaculty);
+        return savedFaculty;
     }
 
-    @CachePut(value = "faculties", key = "#id")
     public Faculty updateFaculty(String id, Faculty facultyUpdate) {
-        Faculty existingFaculty = getFacultyById(id);
-
-        if (facultyUpdate.getName() != null) {
-            existingFaculty.setName(facultyUpdate.getName());
-        }
-        if (facultyUpdate.getDescription() != null) {
-            existingFaculty.setDescription(facultyUpdate.getDescription());
-        }
-        if (facultyUpdate.getUniversityId() != null) {
-            existingFaculty.setUniversityId(facultyUpdate.getUniversityId());
-        }
-        if (facultyUpdate.getUniversityName() != null) {
-            existingFaculty.setUniversityName(facultyUpdate.getUniversityName());
-        }
-        if (facultyUpdate.getDean() != null) {
-            existingFaculty.setDean(facultyUpdate.getDean());
-        }
-        if (facultyUpdate.getContactEmail() != null) {
-            existingFaculty.setContactEmail(facultyUpdate.getContactEmail());
-        }
-        if (facultyUpdate.getContactPhone() != null) {
-            existingFaculty.setContactPhone(facultyUpdate.getContactPhone());
-        }
-        if (facultyUpdate.getSubjects() != null) {
-            existingFaculty.setSubjects(facultyUpdate.getSubjects());
+        Faculty updatedFaculty = partialUpdater.update(Faculty.class, id, facultyUpdate, UPDATABLE_PROPERTIES);
+        if (updatedFaculty == null) {
+            throw new FacultyNotFoundException("Faculty not found with id: " + id);
         }
-
-        existingFaculty.setUpdatedAt(LocalDateTime.now());
-        return facultyRepository.save(existingFaculty);
+        return updatedFaculty;
     }
 
-    @CacheEvict(value = "faculties", key = "#id")
     public void deleteFaculty(String id) {
-        Faculty faculty = getFacultyById(id);
-        faculty.setActive(false);
-        faculty.setUpdatedAt(LocalDateTime.now());
-        facultyRepository.save(faculty);
+        optimisticRetry.execute(() -> {
+            Faculty faculty = getFacultyById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(faculty);
+            faculty.setActive(false);
+            faculty.setUpdatedAt(LocalDateTime.now());
+            Faculty savedFaculty = facultyRepository.save(faculty);
+            cacheMaintenance.afterUpdate(previousKeys, savedFaculty);
+            return null;
+        });
     }
 
     public List<Faculty> getFacultiesByUniversity(String universityId) {
         return facultyRepository.findByUniversityIdAndActiveTrue(universityId);
     }
 
+    public CursorPage<Faculty> getFacultiesByUniversityPage(String universityId, String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<Faculty> rows = cursorPagination.hasCursor(cursor)
+            ? facultyRepository.findByUniversityIdAndActiveTrueAndIdLessThan(universityId, cursorPagination.decode(cursor), pageable)
+            : facultyRepository.findByUniversityIdAndActiveTrue(universityId, pageable);
+        return cursorPagination.toPage(rows, pageable, Faculty::getId);
+    }
+
     public List<Faculty> searchFacultiesByName(String name) {
         return facultyRepository.findByNameContainingIgnoreCase(name);
     }
@@ -101,20 +118,28 @@ public class FacultyService {
         return facultyRepository.findBySubjectsContainingAndActiveTrue(subject);
     }
 
-    @CachePut(value = "faculties", key = "#facultyId")
     public Faculty addSubjectToFaculty(String facultyId, String subject) {
-        Faculty faculty = getFacultyById(facultyId);
-        faculty.addSubject(subject);
-        faculty.setUpdatedAt(LocalDateTime.now());
-        return facultyRepository.save(faculty);
+        return optimisticRetry.execute(() -> {
+            Faculty faculty = getFacultyById(facultyId);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(faculty);
+            faculty.addSubject(subject);
+            faculty.setUpdatedAt(LocalDateTime.now());
+            Faculty savedFaculty = facultyRepository.save(faculty);
+            cacheMaintenance.afterUpdate(previousKeys, savedFaculty);
+            return savedFaculty;
+        });
     }
 
-    @CachePut(value = "faculties", key = "#facultyId")
     public Faculty removeSubjectFromFaculty(String facultyId, String subject) {
-        Faculty faculty = getFacultyById(facultyId);
-        faculty.removeSubject(subject);
-        faculty.setUpdatedAt(LocalDateTime.now());
-        return facultyRepository.save(faculty);
+        return optimisticRetry.execute(() -> {
+            Faculty faculty = getFacultyById(facultyId);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(faculty);
+            faculty.removeSubject(subject);
+            faculty.setUpdatedAt(LocalDateTime.now());
+            Faculty savedFaculty = facultyRepository.save(faculty);
+            cacheMaintenance.afterUpdate(previousKeys, savedFaculty);
+            return savedFaculty;
+        });
     }
 
     public long countActiveFaculties() {
@@ -1,20 +1,40 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.cache.CacheEntryWeigher;
+import com.diyawanna.sup.cache.DynamicQueryResultCache;
+import com.diyawanna.sup.cache.NegativeLookupCache;
+import com.diyawanna.sup.cache.OffHeapCacheTier;
+import com.diyawanna.sup.cache.TwoTierCaffeineCache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Performance monitoring service
  * 
  * This service provides:
  * - Application performance metrics
- * - Cache statistics
+ * - Cache statistics (hits, misses, loads, evictions, size) with windowed rates
  * - Database connection monitoring
  * - Memory usage tracking
  * 
@@ -30,6 +50,26 @@ public class PerformanceMonitoringService {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private DynamicQueryResultCache resultCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheWarmUpService cacheWarmUpService;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    @Value("${performance.cache-stats.retention-minutes:60}")
+    private int statsRetentionMinutes;
+
+    @Value("${performance.cache-stats.byte-sample-size:32}")
+    private int byteSampleSize;
+
+    private final Map<String, Deque<StatsSnapshot>> cacheHistory = new ConcurrentHashMap<>();
+
     /**
      * Get comprehensive performance metrics
      */
@@ -75,20 +115,25 @@ public class PerformanceMonitoringService {
         Map<String, Object> cacheMetrics = new HashMap<>();
         
         try {
-            // Get cache names and basic statistics
             cacheMetrics.put("cacheNames", cacheManager.getCacheNames());
             cacheMetrics.put("cacheManagerType", cacheManager.getClass().getSimpleName());
             
-            // For each cache, get basic info
+            // Per-cache counters since startup
             Map<String, Object> cacheDetails = new HashMap<>();
             for (String cacheName : cacheManager.getCacheNames()) {
-                Map<String, Object> cacheInfo = new HashMap<>();
-                cacheInfo.put("name", cacheName);
-                cacheInfo.put("nativeCache", cacheManager.getCache(cacheName).getNativeCache().getClass().getSimpleName());
-                cacheDetails.put(cacheName, cacheInfo);
+                cacheDetails.put(cacheName, getCacheStatistics(cacheName));
             }
             cacheMetrics.put("cacheDetails", cacheDetails);
             
+            Map<String, Object> resultCacheInfo = toMap(resultCache.stats());
+            resultCacheInfo.put("size", resultCache.size());
+            resultCacheInfo.put("cachedDocuments", resultCache.weightedSize());
+            cacheMetrics.put("dynamicQueryResults", resultCacheInfo);
+            
+            Map<String, Object> negativeCacheInfo = toMap(negativeLookupCache.stats());
+            negativeCacheInfo.put("size", negativeLookupCache.size());
+            cacheMetrics.put("negativeLookups", negativeCacheInfo);
+            
         } catch (Exception e) {
             cacheMetrics.put("error", "Failed to retrieve cache metrics: " + e.getMessage());
         }
@@ -96,6 +141,147 @@ public class PerformanceMonitoringService {
         return cacheMetrics;
     }
 
+    /**
+     * Get hit, miss, load and eviction counters, size and estimated bytes of one cache
+     */
+    public Map<String, Object> getCacheStatistics(String cacheName) {
+        Cache<Object, Object> cache = nativeCache(cacheName);
+        
+        Map<String, Object> statistics = toMap(cache.stats());
+        statistics.put("name", cacheName);
+        statistics.put("size", cache.estimatedSize());
+        
+        OptionalLong weightedSize = cache.policy().eviction()
+            .map(eviction -> eviction.weightedSize())
+            .orElse(OptionalLong.empty());
+        if (weightedSize.isPresent()) {
+            statistics.put("estimatedBytes", weightedSize.getAsLong());
+            statistics.put("estimatedBytesSource", "weigher");
+        } else {
+            statistics.put("estimatedBytes", sampleEstimatedBytes(cache));
+            statistics.put("estimatedBytesSource", "sample");
+        }
+        
+        org.springframework.cache.Cache springCache = cacheManager.getCache(cacheName);
+        if (springCache instanceof TwoTierCaffeineCache) {
+            OffHeapCacheTier secondTier = ((TwoTierCaffeineCache) springCache).getSecondTier();
+            Map<String, Object> secondTierStatistics = toMap(secondTier.stats());
+            secondTierStatistics.put("size", secondTier.size());
+            secondTierStatistics.put("offHeapBytes", secondTier.weightedSize());
+            statistics.put("secondTier", secondTierStatistics);
+        }
+        
+        return statistics;
+    }
+
+    /**
+     * Get counters and rates of one cache over the last windowMinutes
+     *
+     * Rates are the difference between the live counters and the oldest
+     * snapshot inside the window; snapshots are taken once a minute.
+     */
+    public Map<String, Object> getCacheWindowStatistics(String cacheName, int windowMinutes) {
+        CacheStats current = nativeCache(cacheName).stats();
+        long now = System.currentTimeMillis();
+        long windowStart = now - TimeUnit.MINUTES.toMillis(windowMinutes);
+        
+        StatsSnapshot baseline = null;
+        for (StatsSnapshot snapshot : cacheHistory.getOrDefault(cacheName, new ConcurrentLinkedDeque<>())) {
+            if (snapshot.timestamp >= windowStart) {
+                baseline = snapshot;
+                break;
+            }
+        }
+        
+        CacheStats delta = baseline != null ? current.minus(baseline.stats) : current;
+        double coveredMinutes = baseline != null
+            ? Math.max((now - baseline.timestamp) / 60000.0, 1.0 / 60)
+            : windowMinutes;
+        
+        Map<String, Object> window = toMap(delta);
+        window.put("windowMinutes", windowMinutes);
+        window.put("coveredMinutes", coveredMinutes);
+        window.put("requestsPerMinute", delta.requestCount() / coveredMinutes);
+        window.put("evictionsPerMinute", delta.evictionCount() / coveredMinutes);
+        return window;
+    }
+
+    /**
+     * Record a statistics snapshot of every cache for windowed rates
+     */
+    @Scheduled(fixedRateString = "${performance.cache-stats.sample-interval-ms:60000}")
+    public void sampleCacheStatistics() {
+        long now = System.currentTimeMillis();
+        long retentionStart = now - TimeUnit.MINUTES.toMillis(statsRetentionMinutes);
+        
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = nativeCacheOrNull(cacheName);
+            if (cache == null) {
+                continue;
+            }
+            Deque<StatsSnapshot> history = cacheHistory.computeIfAbsent(cacheName, name -> new ConcurrentLinkedDeque<>());
+            history.addLast(new StatsSnapshot(now, cache.stats()));
+            
+            Iterator<StatsSnapshot> iterator = history.iterator();
+            while (iterator.hasNext() && iterator.next().timestamp < retentionStart) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private Map<String, Object> toMap(CacheStats stats) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("hits", stats.hitCount());
+        map.put("misses", stats.missCount());
+        map.put("hitRatio", stats.hitRate());
+        map.put("loads", stats.loadCount());
+        map.put("loadFailures", stats.loadFailureCount());
+        map.put("totalLoadTimeMs", TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()));
+        map.put("averageLoadTimeMs", stats.averageLoadPenalty() / 1_000_000.0);
+        map.put("evictions", stats.evictionCount());
+        map.put("evictionWeight", stats.evictionWeight());
+        return map;
+    }
+
+    /**
+     * Estimate the bytes held by an unweighted cache from the JSON size of a sample of its values
+     */
+    private long sampleEstimatedBytes(Cache<Object, Object> cache) {
+        long size = cache.estimatedSize();
+        if (size == 0) {
+            return 0;
+        }
+        CacheEntryWeigher weigher = new CacheEntryWeigher(objectMapper);
+        List<Object> sample = cache.asMap().values().stream()
+            .limit(byteSampleSize)
+            .collect(Collectors.toList());
+        if (sample.isEmpty()) {
+            return 0;
+        }
+        long sampledBytes = 0;
+        for (Object value : sample) {
+            sampledBytes += weigher.weigh(null, value);
+        }
+        return sampledBytes * size / sample.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCacheOrNull(String cacheName) {
+        if (!cacheManager.getCacheNames().contains(cacheName)) {
+            return null;
+        }
+        Object nativeCache = cacheManager.getCache(cacheName).getNativeCache();
+        return nativeCache instanceof Cache ? (Cache<Object, Object>) nativeCache : null;
+    }
+
+    private Cache<Object, Object> nativeCache(String cacheName) {
+        Cache<Object, Object> cache = nativeCacheOrNull(cacheName);
+        if (cache == null) {
+            throw new IllegalArgumentException("Cache not found: " + cacheName);
+        }
+        return cache;
+    }
+
     /**
      * Get database performance metrics
      */
@@ -146,13 +332,7 @@ public class PerformanceMonitoringService {
      * Get cache hit ratio for specific cache
      */
     public double getCacheHitRatio(String cacheName) {
-        try {
-            // This would require a more sophisticated cache implementation
-            // For now, return a placeholder
-            return 0.85; // 85% hit ratio
-        } catch (Exception e) {
-            return 0.0;
-        }
+        return nativeCache(cacheName).stats().hitRate();
     }
 
     /**
@@ -173,6 +353,9 @@ public class PerformanceMonitoringService {
      */
     public void clearCache(String cacheName) {
         try {
+            if (!cacheManager.getCacheNames().contains(cacheName)) {
+                throw new IllegalArgumentException("Cache not found: " + cacheName);
+            }
             cacheManager.getCache(cacheName).clear();
         } catch (Exception e) {
             throw new RuntimeException("Failed to clear cache " + cacheName + ": " + e.getMessage(), e);
@@ -181,18 +364,33 @@ public class PerformanceMonitoringService {
 
     /**
      * Warm up caches with frequently accessed data
+     *
+     * @return progress of the started warm-up, or of the one already running
      */
-    public void warmUpCaches() {
-        try {
-            // This would typically pre-load frequently accessed data
-            // Implementation depends on specific use cases
-            
-            // For now, just log that warm-up was requested
-            System.out.println("Cache warm-up initiated at: " + LocalDateTime.now());
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to warm up caches: " + e.getMessage(), e);
+    public Map<String, Object> warmUpCaches() {
+        boolean started = cacheWarmUpService.start("manual");
+        Map<String, Object> progress = cacheWarmUpService.getProgress();
+        progress.put("started", started);
+        return progress;
+    }
+
+    /**
+     * Progress of the current or last cache warm-up
+     */
+    public Map<String, Object> getCacheWarmUpProgress() {
+        return cacheWarmUpService.getProgress();
+    }
+
+    /**
+     * Counters of one cache at a point in time
+     */
+    private static final class StatsSnapshot {
+        private final long timestamp;
+        private final CacheStats stats;
+
+        private StatsSnapshot(long timestamp, CacheStats stats) {
+            this.timestamp = timestamp;
+            this.stats = stats;
         }
     }
 }
-
@@ -1,14 +1,20 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.Query;
 import com.diyawanna.sup.repository.QueryRepository;
 import com.diyawanna.sup.exception.QueryNotFoundException;
 import com.diyawanna.sup.exception.QueryAlreadyExistsException;
+import com.diyawanna.sup.cache.CacheMaintenance;
+import com.diyawanna.sup.util.CursorPagination;
+import com.diyawanna.sup.util.OptimisticRetry;
+import com.diyawanna.sup.util.PartialUpdater;
+import com.diyawanna.sup.cache.NegativeLookupCache;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -24,15 +30,44 @@ import java.util.Optional;
 @Service
 public class QueryService {
 
+    // Properties updateQuery may change; cacheable is a primitive and is therefore always written
+    private static final List<String> UPDATABLE_PROPERTIES = List.of(
+        "name", "description", "queryContent", "queryType", "collection", "projection", "sort", "limit",
+        "skip", "hint", "maxTimeMS", "parameters", "variableMappings", "successMessage", "errorMessage", "category",
+        "cacheable", "cacheTimeoutSeconds", "lastModifiedBy");
+
     @Autowired
     private QueryRepository queryRepository;
 
-    @Cacheable(value = "queries", key = "'all_active'")
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Cacheable(value = "queries", key = "'all_active'", sync = true)
     public List<Query> getAllActiveQueries() {
         return queryRepository.findByActiveTrue();
     }
 
-    @Cacheable(value = "queries", key = "#id")
+    public CursorPage<Query> getActiveQueriesPage(String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<Query> rows = cursorPagination.hasCursor(cursor)
+            ? queryRepository.findByActiveTrueAndIdLessThan(cursorPagination.decode(cursor), pageable)
+            : queryRepository.findByActiveTrue(pageable);
+        return cursorPagination.toPage(rows, pageable, Query::getId);
+    }
+
+    @Cacheable(value = "queries", key = "#id", sync = true)
     public Query getQueryById(String id) {
         Optional<Query> query = queryRepository.findById(id);
         if (query.isEmpty()) {
@@ -41,17 +76,22 @@ public class QueryService {
         return query.get();
     }
 
-    @Cacheable(value = "queries", key = "'name_' + #name")
+    @Cacheable(value = "queries", key = "'name_' + #name", sync = true)
     public Query getQueryByName(String name) {
+        String key = "name_" + name;
+        if (negativeLookupCache.isKnownMissing("queries", key)) {
+            throw new QueryNotFoundException("Query not found with name: " + name);
+        }
         Optional<Query> query = queryRepository.findByName(name);
         if (query.isEmpty()) {
+            negativeLookupCache.recordMissing("queries", key);
             throw new QueryNotFoundException("Query not found with name: " + name);
         }
         return query.get();
     }
 
-    @CacheEvict(value = "queries", allEntries = true)
     public Query createQuery(Query query) {
+        query.setVersion(null); // Inserted as version 0 regardless of the request body
         if (queryRepository.existsByName(query.getName())) {
             throw new QueryAlreadyExistsException("Query already exists with name: " + query.getName());
         }
@@ -59,67 +99,34 @@ public class QueryService {
         query.setActive(true);
         query.setCreatedAt(LocalDateTime.now());
         query.setUpdatedAt(LocalDateTime.now());
-        return queryRepository.save(query);
+        Query savedQuery = queryRepository.save(query);
+        cacheMaintenance.afterCreate(savedQuery);
+        return savedQuery;
     }
 
-    @CachePut(value = "queries", key = "#id")
     public Query updateQuery(String id, Query queryUpdate) {
-        Query existingQuery = getQueryById(id);
-
-        if (queryUpdate.getName() != null) {
-            if (!queryUpdate.getName().equals(existingQuery.getName()) && 
-                queryRepository.existsByName(queryUpdate.getName())) {
-                throw new QueryAlreadyExistsException("Query already exists with name: " + queryUpdate.getName());
-            }
-            existingQuery.setName(queryUpdate.getName());
-        }
-        if (queryUpdate.getDescription() != null) {
-            existingQuery.setDescription(queryUpdate.getDescription());
+        Query updatedQuery;
+        try {
+            updatedQuery = partialUpdater.update(Query.class, id, queryUpdate, UPDATABLE_PROPERTIES);
+        } catch (DuplicateKeyException e) {
+            throw new QueryAlreadyExistsException("Query already exists with name: " + queryUpdate.getName());
         }
-        if (queryUpdate.getQueryContent() != null) {
-            existingQuery.setQueryContent(queryUpdate.getQueryContent());
-        }
-        if (queryUpdate.getQueryType() != null) {
-            existingQuery.setQueryType(queryUpdate.getQueryType());
-        }
-        if (queryUpdate.getCollection() != null) {
-            existingQuery.setCollection(queryUpdate.getCollection());
-        }
-        if (queryUpdate.getParameters() != null) {
-            existingQuery.setParameters(queryUpdate.getParameters());
-        }
-        if (queryUpdate.getVariableMappings() != null) {
-            existingQuery.setVariableMappings(queryUpdate.getVariableMappings());
-        }
-        if (queryUpdate.getSuccessMessage() != null) {
-            existingQuery.setSuccessMessage(queryUpdate.getSuccessMessage());
-        }
-        if (queryUpdate.getErrorMessage() != null) {
-            existingQuery.setErrorMessage(queryUpdate.getErrorMessage());
-        }
-        if (queryUpdate.getCategory() != null) {
-            existingQuery.setCategory(queryUpdate.getCategory());
-        }
-        if (queryUpdate.isCacheable() != existingQuery.isCacheable()) {
-            existingQuery.setCacheable(queryUpdate.isCacheable());
-        }
-        if (queryUpdate.getCacheTimeoutSeconds() != null) {
-            existingQuery.setCacheTimeoutSeconds(queryUpdate.getCacheTimeoutSeconds());
-        }
-        if (queryUpdate.getLastModifiedBy() != null) {
-            existingQuery.setLastModifiedBy(queryUpdate.getLastModifiedBy());
+        if (updatedQuery == null) {
+            throw new QueryNotFoundException("Query not found with id: " + id);
         }
-
-        existingQuery.setUpdatedAt(LocalDateTime.now());
-        return queryRepository.save(existingQuery);
+        return updatedQuery;
     }
 
-    @CacheEvict(value = "queries", key = "#id")
     public void deleteQuery(String id) {
-        Query query = getQueryById(id);
-        query.setActive(false);
-        query.setUpdatedAt(LocalDateTime.now());
-        queryRepository.save(query);
+        optimisticRetry.execute(() -> {
+            Query query = getQueryById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(query);
+            query.setActive(false);
+            query.setUpdatedAt(LocalDateTime.now());
+            Query savedQuery = queryRepository.save(query);
+            cacheMaintenance.afterUpdate(previousKeys, savedQuery);
+            return null;
+        });
     }
 
     public List<Query> getQueriesByCategory(String category) {
@@ -170,20 +177,28 @@ public class QueryService {
         return queryRepository.existsByName(name);
     }
 
-    @CachePut(value = "queries", key = "#id")
     public Query activateQuery(String id) {
-        Query query = getQueryById(id);
-        query.setActive(true);
-        query.setUpdatedAt(LocalDateTime.now());
-        return queryRepository.save(query);
+        return optimisticRetry.execute(() -> {
+            Query query = getQueryById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(query);
+            query.setActive(true);
+            query.setUpdatedAt(LocalDateTime.now());
+            Query savedQuery = queryRepository.save(query);
+            cacheMaintenance.afterUpdate(previousKeys, savedQuery);
+            return savedQuery;
+        });
     }
 
-    @CachePut(value = "queries", key = "#id")
     public Query deactivateQuery(String id) {
-        Query query = getQueryById(id);
-        query.setActive(false);
-        query.setUpdatedAt(LocalDateTime.now());
-        return queryRepository.save(query);
+        return optimisticRetry.execute(() -> {
+            Query query = getQueryById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(query);
+            query.setActive(false);
+            query.setUpdatedAt(LocalDateTime.now());
+            Query savedQuery = queryRepository.save(query);
+            cacheMaintenance.afterUpdate(previousKeys, savedQuery);
+            return savedQuery;
+        });
     }
 }
 
@@ -1,14 +1,20 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.University;
 import com.diyawanna.sup.repository.UniversityRepository;
 import com.diyawanna.sup.exception.UniversityNotFoundException;
 import com.diyawanna.sup.exception.UniversityAlreadyExistsException;
+import com.diyawanna.sup.cache.CacheMaintenance;
+import com.diyawanna.sup.cache.NegativeLookupCache;
+import com.diyawanna.sup.util.CursorPagination;
+import com.diyawanna.sup.util.OptimisticRetry;
+import com.diyawanna.sup.util.PartialUpdater;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -30,21 +36,51 @@ import java.util.Optional;
 @Service
 public class UniversityService {
 
+    // Properties updateUniversity may change
+    private static final List<String> UPDATABLE_PROPERTIES = List.of(
+        "name", "description", "location", "website", "contactEmail", "contactPhone", "faculties");
+
     @Autowired
     private UniversityRepository universityRepository;
 
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
     /**
      * Get all active universities
      */
-    @Cacheable(value = "universities", key = "'all_active'")
+    @Cacheable(value = "universities", key = "'all_active'", sync = true)
     public List<University> getAllActiveUniversities() {
         return universityRepository.findByActiveTrue();
     }
 
+    /**
+     * Get one page of active universities using keyset pagination
+     */
+    public CursorPage<University> getActiveUniversitiesPage(String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<University> rows = cursorPagination.hasCursor(cursor)
+            ? universityRepository.findByActiveTrueAndIdLessThan(cursorPagination.decode(cursor), pageable)
+            : universityRepository.findByActiveTrue(pageable);
+        return cursorPagination.toPage(rows, pageable, University::getId);
+    }
+
     /**
      * Get university by ID
      */
-    @Cacheable(value = "universities", key = "#id")
+    @Cacheable(value = "universities", key = "#id", sync = true)
     public University getUniversityById(String id) {
         Optional<University> university = universityRepository.findById(id);
         if (university.isEmpty()) {
@@ -56,10 +92,15 @@ public class UniversityService {
     /**
      * Get university by name
      */
-    @Cacheable(value = "universities", key = "'name_' + #name")
+    @Cacheable(value = "universities", key = "'name_' + #name", sync = true)
     public University getUniversityByName(String name) {
+        String key = "name_" + name;
+        if (negativeLookupCache.isKnownMissing("universities", key)) {
+            throw new UniversityNotFoundException("University not found with name: " + name);
+        }
         Optional<University> university = universityRepository.findByName(name);
         if (university.isEmpty()) {
+            negativeLookupCache.recordMissing("universities", key);
             throw new UniversityNotFoundException("University not found with name: " + name);
         }
         return university.get();
@@ -68,8 +109,8 @@ public class UniversityService {
     /**
      * Create new university
      */
-    @CacheEvict(value = "universities", allEntries = true)
     public University createUniversity(University university) {
+        university.setVersion(null); // Inserted as version 0 regardless of the request body
         // Validate name uniqueness
         if (universityRepository.existsByName(university.getName())) {
             throw new UniversityAlreadyExistsException("University already exists with name: " + university.getName());
@@ -80,69 +121,50 @@ public class UniversityService {
         university.setCreatedAt(LocalDateTime.now());
         university.setUpdatedAt(LocalDateTime.now());
 
-        return universityRepository.save(university);
+        University savedUniversity = universityRepository.save(university);
+        cacheMaintenance.afterCreate(savedUniversity);
+        return savedUniversity;
     }
 
     /**
      * Update university
      */
-    @CachePut(value = "universities", key = "#id")
-    @CacheEvict(value = "universities", key = "'all_active'")
     public University updateUniversity(String id, University universityUpdate) {
-        University existingUniversity = getUniversityById(id);
-
-        // Update fields if provided
-        if (universityUpdate.getName() != null) {
-            // Check name uniqueness
-            if (!universityUpdate.getName().equals(existingUniversity.getName()) && 
-                universityRepository.existsByName(universityUpdate.getName())) {
-                throw new UniversityAlreadyExistsException("University already exists with name: " + universityUpdate.getName());
-            }
-            existingUniversity.setName(universityUpdate.getName());
-        }
-        if (universityUpdate.getDescription() != null) {
-            existingUniversity.setDescription(universityUpdate.getDescription());
-        }
-        if (universityUpdate.getLocation() != null) {
-            existingUniversity.setLocation(universityUpdate.getLocation());
-        }
-        if (universityUpdate.getWebsite() != null) {
-            existingUniversity.setWebsite(universityUpdate.getWebsite());
+        University updatedUniversity;
+        try {
+            updatedUniversity = partialUpdater.update(University.class, id, universityUpdate, UPDATABLE_PROPERTIES);
+        } catch (DuplicateKeyException e) {
+            throw new UniversityAlreadyExistsException("University already exists with name: " + universityUpdate.getName());
         }
-        if (universityUpdate.getContactEmail() != null) {
-            existingUniversity.setContactEmail(universityUpdate.getContactEmail());
-        }
-        if (universityUpdate.getContactPhone() != null) {
-            existingUniversity.setContactPhone(universityUpdate.getContactPhone());
-        }
-        if (universityUpdate.getFaculties() != null) {
-            existingUniversity.setFaculties(universityUpdate.getFaculties());
+        if (updatedUniversity == null) {
+            throw new UniversityNotFoundException("University not found with id: " + id);
         }
-
-        existingUniversity.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(existingUniversity);
+        return updatedUniversity;
     }
 
     /**
      * Delete university (soft delete)
      */
-    @CacheEvict(value = "universities", key = "#id")
     public void deleteUniversity(String id) {
-        University university = getUniversityById(id);
-        university.setActive(false);
-        university.setUpdatedAt(LocalDateTime.now());
-        universityRepository.save(university);
+        optimisticRetry.execute(() -> {
+            University university = getUniversityById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(university);
+            university.setActive(false);
+            university.setUpdatedAt(LocalDateTime.now());
+            University savedUniversity = universityRepository.save(university);
+            cacheMaintenance.afterUpdate(previousKeys, savedUniversity);
+            return null;
+        });
     }
 
     /**
      * Hard delete university
      */
-    @CacheEvict(value = "universities", allEntries = true)
     public void hardDeleteUniversity(String id) {
-        if (!universityRepository.existsById(id)) {
-            throw new UniversityNotFoundException("University not found with id: " + id);
-        }
+        University university = universityRepository.findById(id)
+            .orElseThrow(() -> new UniversityNotFoundException("University not found with id: " + id));
         universityRepository.deleteById(id);
+        cacheMaintenance.afterDelete(university);
     }
 
     /**
@@ -183,23 +205,31 @@ public class UniversityService {
     /**
      * Add faculty to university
      */
-    @CachePut(value = "universities", key = "#universityId")
     public University addFacultyToUniversity(String universityId, String facultyId) {
-        University university = getUniversityById(universityId);
-        university.addFaculty(facultyId);
-        university.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(university);
+        return optimisticRetry.execute(() -> {
+            University university = getUniversityById(universityId);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(university);
+            university.addFaculty(facultyId);
+            university.setUpdatedAt(LocalDateTime.now());
+            University savedUniversity = universityRepository.save(university);
+            cacheMaintenance.afterUpdate(previousKeys, savedUniversity);
+            return savedUniversity;
+        });
     }
 
     /**
      * Remove faculty from university
      */
-    @CachePut(value = "universities", key = "#universityId")
     public University removeFacultyFromUniversity(String universityId, String facultyId) {
-        University university = getUniversityById(universityId);
-        university.removeFaculty(facultyId);
-        university.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(university);
+        return optimisticRetry.execute(() -> {
+            University university = getUniversityById(universityId);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(university);
+            university.removeFaculty(facultyId);
+            university.setUpdatedAt(LocalDateTime.now());
+            University savedUniversity = universityRepository.save(university);
+            cacheMaintenance.afterUpdate(previousKeys, savedUniversity);
+            return savedUniversity;
+        });
     }
 
     /**
@@ -226,23 +256,31 @@ public class UniversityService {
     /**
      * Activate university
      */
-    @CachePut(value = "universities", key = "#id")
     public University activateUniversity(String id) {
-        University university = getUniversityById(id);
-        university.setActive(true);
-        university.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(university);
+        return optimisticRetry.execute(() -> {
+            University university = getUniversityById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(university);
+            university.setActive(true);
+            university.setUpdatedAt(LocalDateTime.now());
+            University savedUniversity = universityRepository.save(university);
+            cacheMaintenance.afterUpdate(previousKeys, savedUniversity);
+            return savedUniversity;
+        });
     }
 
     /**
      * Deactivate university
      */
-    @CachePut(value = "universities", key = "#id")
     public University deactivateUniversity(String id) {
-        University university = getUniversityById(id);
-        university.setActive(false);
-        university.setUpdatedAt(LocalDateTime.now());
-        return universityRepository.save(university);
+        return optimisticRetry.execute(() -> {
+            University university = getUniversityById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(university);
+            university.setActive(false);
+            university.setUpdatedAt(LocalDateTime.now());
+            University savedUniversity = universityRepository.save(university);
+            cacheMaintenance.afterUpdate(previousKeys, savedUniversity);
+            return savedUniversity;
+        });
     }
 }
 
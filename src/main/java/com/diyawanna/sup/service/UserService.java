@@ -1,14 +1,21 @@
 package com.diyawanna.sup.service;
 
+import com.diyawanna.sup.dto.CursorPage;
 import com.diyawanna.sup.entity.User;
 import com.diyawanna.sup.repository.UserRepository;
 import com.diyawanna.sup.exception.UserNotFoundException;
 import com.diyawanna.sup.exception.UserAlreadyExistsException;
+import com.diyawanna.sup.cache.CacheMaintenance;
+import com.diyawanna.sup.cache.NegativeLookupCache;
+import com.diyawanna.sup.util.CursorPagination;
+import com.diyawanna.sup.util.OptimisticRetry;
+import com.diyawanna.sup.util.PartialUpdater;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -33,24 +40,57 @@ import java.util.Optional;
 @Service
 public class UserService {
 
+    // Profile properties updateUser may change; username and password have their own flows
+    private static final List<String> UPDATABLE_PROPERTIES = List.of(
+        "name", "email", "age", "university", "school", "work", "phoneNumber", "address", "profilePicture");
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private PartialUpdater partialUpdater;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * Get all active users
      */
-    @Cacheable(value = "users", key = "'all_active'")
+    @Cacheable(value = "users", key = "'all_active'", sync = true)
     public List<User> getAllActiveUsers() {
         return userRepository.findByActiveTrue();
     }
 
+    /**
+     * Get one page of active users using keyset pagination
+     */
+    public CursorPage<User> getActiveUsersPage(String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<User> rows = cursorPagination.hasCursor(cursor)
+            ? userRepository.findByActiveTrueAndIdLessThan(cursorPagination.decode(cursor), pageable)
+            : userRepository.findByActiveTrue(pageable);
+        return cursorPagination.toPage(rows, pageable, User::getId);
+    }
+
     /**
      * Get user by ID
      */
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = "users", key = "#id", sync = true)
     public User getUserById(String id) {
         Optional<User> user = userRepository.findById(id);
         if (user.isEmpty()) {
@@ -62,10 +102,15 @@ public class UserService {
     /**
      * Get user by username
      */
-    @Cacheable(value = "users", key = "'username_' + #username")
+    @Cacheable(value = "users", key = "'username_' + #username", sync = true)
     public User getUserByUsername(String username) {
+        String key = "username_" + username;
+        if (negativeLookupCache.isKnownMissing("users", key)) {
+            throw new UserNotFoundException("User not found with username: " + username);
+        }
         Optional<User> user = userRepository.findByUsername(username);
         if (user.isEmpty()) {
+            negativeLookupCache.recordMissing("users", key);
             throw new UserNotFoundException("User not found with username: " + username);
         }
         return user.get();
@@ -85,8 +130,8 @@ public class UserService {
     /**
      * Create new user
      */
-    @CacheEvict(value = "users", allEntries = true)
     public User createUser(User user) {
+        user.setVersion(null); // Inserted as version 0 regardless of the request body
         // Validate username uniqueness
         if (userRepository.existsByUsername(user.getUsername())) {
             throw new UserAlreadyExistsException("Username already exists: " + user.getUsername());
@@ -107,75 +152,51 @@ public class UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        cacheMaintenance.afterCreate(savedUser);
+        return savedUser;
     }
 
     /**
      * Update user
      */
-    @CachePut(value = "users", key = "#id")
-    @CacheEvict(value = "users", key = "'all_active'")
     public User updateUser(String id, User userUpdate) {
-        User existingUser = getUserById(id);
-
-        // Update fields if provided
-        if (userUpdate.getName() != null) {
-            existingUser.setName(userUpdate.getName());
-        }
-        if (userUpdate.getEmail() != null) {
-            // Check email uniqueness
-            if (!userUpdate.getEmail().equals(existingUser.getEmail()) && 
-                userRepository.existsByEmail(userUpdate.getEmail())) {
-                throw new UserAlreadyExistsException("Email already exists: " + userUpdate.getEmail());
-            }
-            existingUser.setEmail(userUpdate.getEmail());
-        }
-        if (userUpdate.getAge() != null) {
-            existingUser.setAge(userUpdate.getAge());
-        }
-        if (userUpdate.getUniversity() != null) {
-            existingUser.setUniversity(userUpdate.getUniversity());
+        User updatedUser;
+        try {
+            updatedUser = partialUpdater.update(User.class, id, userUpdate, UPDATABLE_PROPERTIES);
+        } catch (DuplicateKeyException e) {
+            // Email is the only unique property a profile update can change
+            throw new UserAlreadyExistsException("Email already exists: " + userUpdate.getEmail());
         }
-        if (userUpdate.getSchool() != null) {
-            existingUser.setSchool(userUpdate.getSchool());
-        }
-        if (userUpdate.getWork() != null) {
-            existingUser.setWork(userUpdate.getWork());
-        }
-        if (userUpdate.getPhoneNumber() != null) {
-            existingUser.setPhoneNumber(userUpdate.getPhoneNumber());
-        }
-        if (userUpdate.getAddress() != null) {
-            existingUser.setAddress(userUpdate.getAddress());
-        }
-        if (userUpdate.getProfilePicture() != null) {
-            existingUser.setProfilePicture(userUpdate.getProfilePicture());
+        if (updatedUser == null) {
+            throw new UserNotFoundException("User not found with id: " + id);
         }
-
-        existingUser.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(existingUser);
+        return updatedUser;
     }
 
     /**
      * Delete user (soft delete)
      */
-    @CacheEvict(value = "users", key = "#id")
     public void deleteUser(String id) {
-        User user = getUserById(id);
-        user.setActive(false);
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        optimisticRetry.execute(() -> {
+            User user = getUserById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(user);
+            user.setActive(false);
+            user.setUpdatedAt(LocalDateTime.now());
+            User savedUser = userRepository.save(user);
+            cacheMaintenance.afterUpdate(previousKeys, savedUser);
+            return null;
+        });
     }
 
     /**
      * Hard delete user
      */
-    @CacheEvict(value = "users", allEntries = true)
     public void hardDeleteUser(String id) {
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
         userRepository.deleteById(id);
+        cacheMaintenance.afterDelete(user);
     }
 
     /**
@@ -192,6 +213,17 @@ public class UserService {
         return userRepository.findByUniversityAndActiveTrue(university);
     }
 
+    /**
+     * Get one page of a university's active users using keyset pagination
+     */
+    public CursorPage<User> getUsersByUniversityPage(String university, String cursor, Integer size) {
+        Pageable pageable = cursorPagination.pageRequest(size);
+        List<User> rows = cursorPagination.hasCursor(cursor)
+            ? userRepository.findByUniversityAndActiveTrueAndIdLessThan(university, cursorPagination.decode(cursor), pageable)
+            : userRepository.findByUniversityAndActiveTrue(university, pageable);
+        return cursorPagination.toPage(rows, pageable, User::getId);
+    }
+
     /**
      * Get users by age range
      */
@@ -235,10 +267,22 @@ public class UserService {
     }
 
     /**
-     * Check if username exists
+     * Check if username exists, answering from the users cache and recorded misses when possible
      */
     public boolean usernameExists(String username) {
-        return userRepository.existsByUsername(username);
+        String key = "username_" + username;
+        if (negativeLookupCache.isKnownMissing("users", key)) {
+            return false;
+        }
+        Cache users = cacheManager.getCache("users");
+        if (users != null && users.get(key) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsByUsername(username);
+        if (!exists) {
+            negativeLookupCache.recordMissing("users", key);
+        }
+        return exists;
     }
 
     /**
@@ -251,34 +295,43 @@ public class UserService {
     /**
      * Activate user
      */
-    @CachePut(value = "users", key = "#id")
     public User activateUser(String id) {
-        User user = getUserById(id);
-        user.setActive(true);
-        user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        return optimisticRetry.execute(() -> {
+            User user = getUserById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(user);
+            user.setActive(true);
+            user.setUpdatedAt(LocalDateTime.now());
+            User savedUser = userRepository.save(user);
+            cacheMaintenance.afterUpdate(previousKeys, savedUser);
+            return savedUser;
+        });
     }
 
     /**
      * Deactivate user
      */
-    @CachePut(value = "users", key = "#id")
     public User deactivateUser(String id) {
-        User user = getUserById(id);
-        user.setActive(false);
-        user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        return optimisticRetry.execute(() -> {
+            User user = getUserById(id);
+            CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(user);
+            user.setActive(false);
+            user.setUpdatedAt(LocalDateTime.now());
+            User savedUser = userRepository.save(user);
+            cacheMaintenance.afterUpdate(previousKeys, savedUser);
+            return savedUser;
+        });
     }
 
     /**
      * Update user password
      */
-    @CacheEvict(value = "users", key = "#id")
     public void updateUserPassword(String id, String newPassword) {
         User user = getUserById(id);
+        CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(user);
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        cacheMaintenance.afterUpdate(previousKeys, savedUser);
     }
 }
 
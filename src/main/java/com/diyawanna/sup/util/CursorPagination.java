@@ -0,0 +1,97 @@
+package com.diyawanna.sup.util;
+
+import com.diyawanna.sup.dto.CursorPage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helper for list endpoints
+ *
+ * Pages are ordered by _id descending (newest first, since ObjectIds embed
+ * their creation time) and continue from the last _id of the previous page,
+ * so every page costs one bounded index range scan regardless of depth.
+ * Cursors are opaque URL-safe tokens wrapping that _id.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class CursorPagination {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    @Value("${pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Page request for the requested size, fetching one extra row to detect further pages
+     */
+    public Pageable pageRequest(Integer size) {
+        return PageRequest.of(0, resolvePageSize(size) + 1, Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    /**
+     * Clamp the requested page size to the configured bounds
+     */
+    public int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    /**
+     * Check whether a cursor was supplied
+     */
+    public boolean hasCursor(String cursor) {
+        return cursor != null && !cursor.isBlank();
+    }
+
+    /**
+     * Encode the last id of a page as an opaque cursor
+     */
+    public String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor back into the id to continue after
+     */
+    public String decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX) || decoded.length() == CURSOR_PREFIX.length()) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return decoded.substring(CURSOR_PREFIX.length());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Build a page from rows fetched with {@link #pageRequest(Integer)}
+     */
+    public <T> CursorPage<T> toPage(List<T> rows, Pageable pageable, Function<T, String> idExtractor) {
+        int pageSize = pageable.getPageSize() - 1;
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new CursorPage<>(items, encode(idExtractor.apply(items.get(items.size() - 1))));
+    }
+}
@@ -0,0 +1,55 @@
+package com.diyawanna.sup.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry of read-modify-write operations that lost an optimistic lock
+ *
+ * Only for operations whose outcome does not depend on the state they read,
+ * e.g. adding a subject or setting a flag: each attempt re-reads the entity
+ * and reapplies the change, so a retried operation has the same effect as
+ * if it had run after the competing write. Attempts are separated by a
+ * short randomized back-off; after the last attempt the conflict is thrown.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class OptimisticRetry {
+
+    @Value("${persistence.optimistic-retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${persistence.optimistic-retry.backoff-ms:20}")
+    private long backoffMs;
+
+    /**
+     * Run the operation, retrying it on optimistic locking failures
+     */
+    public <T> T execute(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying after a concurrent modification", e);
+        }
+    }
+}
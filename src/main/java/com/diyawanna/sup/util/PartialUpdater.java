@@ -0,0 +1,112 @@
+package com.diyawanna.sup.util;
+
+import com.diyawanna.sup.cache.CacheMaintenance;
+import com.diyawanna.sup.cache.CollectionWriteListener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Applies sparse entity updates as a single field-level MongoDB write
+ *
+ * The non-null values of the listed properties of an update object become
+ * one $set, together with updatedAt and a version increment, in a single
+ * findAndModify that returns the document as it was before the write. The
+ * updated entity is derived from that pre-image in memory, so an update
+ * costs one round trip and never rewrites fields it does not touch.
+ *
+ * When the update object carries a version, the write only matches that
+ * version and a mismatch raises an {@link OptimisticLockingFailureException}.
+ * Uniqueness is left to the collection's unique indexes: a conflicting value
+ * surfaces as a DuplicateKeyException for the caller to translate.
+ *
+ * The entity's cache keys are refreshed through {@link CacheMaintenance}
+ * and the write is announced like any other direct write.
+ *
+ * @author Diyawanna Team
+ * @version 1.0.0
+ */
+@Component
+public class PartialUpdater {
+
+    private static final String UPDATED_AT = "updatedAt";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheMaintenance cacheMaintenance;
+
+    @Autowired
+    private CollectionWriteListener collectionWriteListener;
+
+    /**
+     * Set the non-null values of the given properties on the entity with the given id
+     *
+     * @param changes    update object of the entity type; null properties are left unchanged
+     * @param properties names of the properties a caller may change
+     * @return the updated entity, or null when no entity has the id
+     */
+    public <T> T update(Class<T> type, String id, T changes, Collection<String> properties) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        PersistentPropertyAccessor<T> changeAccessor = entity.getPropertyAccessor(changes);
+
+        Map<MongoPersistentProperty, Object> values = new LinkedHashMap<>();
+        for (String name : properties) {
+            MongoPersistentProperty property = entity.getRequiredPersistentProperty(name);
+            Object value = changeAccessor.getProperty(property);
+            if (value != null) {
+                values.put(property, value);
+            }
+        }
+        values.put(entity.getRequiredPersistentProperty(UPDATED_AT), LocalDateTime.now());
+
+        Update update = new Update();
+        values.forEach((property, value) -> update.set(property.getName(), value));
+        MongoPersistentProperty versionProperty = entity.getRequiredVersionProperty();
+        update.inc(versionProperty.getName(), 1);
+
+        Criteria criteria = Criteria.where("id").is(id);
+        Object expectedVersion = changeAccessor.getProperty(versionProperty);
+        if (expectedVersion != null) {
+            criteria.and(versionProperty.getName()).is(expectedVersion);
+        }
+
+        T previous = mongoTemplate.findAndModify(new Query(criteria), update,
+            FindAndModifyOptions.options().returnNew(false), type);
+        if (previous == null) {
+            // Only a failed versioned write needs the second look to tell a conflict from a missing id
+            if (expectedVersion != null && mongoTemplate.exists(new Query(Criteria.where("id").is(id)), type)) {
+                throw new OptimisticLockingFailureException(type.getSimpleName() + " " + id
+                    + " was modified since version " + expectedVersion);
+            }
+            return null;
+        }
+
+        CacheMaintenance.KeySnapshot previousKeys = cacheMaintenance.snapshot(previous);
+        PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(previous);
+        values.forEach(accessor::setProperty);
+        Number previousVersion = (Number) accessor.getProperty(versionProperty);
+        long version = previousVersion != null ? previousVersion.longValue() + 1 : 1L;
+        accessor.setProperty(versionProperty, version);
+        T updated = accessor.getBean();
+
+        cacheMaintenance.afterUpdate(previousKeys, updated);
+        collectionWriteListener.afterDirectWrite(mongoTemplate.getCollectionName(type), id, version);
+        return updated;
+    }
+}